@@ -0,0 +1,141 @@
+package study.data_jpa.benchmark;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 감사(auditing)가 켜진 저장 경로 (스레드 8개 동시 저장)
+ * 스레드마다 HTTP 요청(X-User-Id 헤더)이 바인딩된 상태에서 저장한다.
+ * - auditor=uuid: 기존 등록자 방식. 저장마다 UUID.randomUUID() (SecureRandom이라 동시에 호출하면 경합)
+ * - auditor=request: RequestAuditorAware. 요청당 한 번 구하고 요청 속성에 캐시된 값을 쓴다.
+ * - save: 회원 한 명씩 저장 (엔티티마다 리스너 -> AuditingHandler -> AuditorAware)
+ * - saveAllInBatches: BATCH_SIZE명씩 저장. batchMode=true면 감사 값을 호출당 한 번만 구한다. (auditing.batch-mode)
+ *   save는 batchMode와 상관없으므로 save의 batchMode=true 결과는 false와 같아야 한다.
+ * score는 회원 1명당 처리량(ops/ms)이다. iteration마다 저장한 회원을 지운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class AuditorBenchmark {
+
+    static final int BATCH_SIZE = 100;
+
+    @Param({"uuid", "request"})
+    String auditor;
+
+    @Param({"false", "true"})
+    boolean batchMode;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String batchModeArg = "--auditing.batch-mode=" + batchMode;
+        context = "uuid".equals(auditor)
+                ? BenchmarkApplication.start(UuidAuditorConfig.class, batchModeArg)
+                : BenchmarkApplication.start(batchModeArg);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteMembers() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 기존 등록자 방식 (auditor=uuid일 때만 등록되어 RequestAuditorAware 대신 쓰인다)
+     */
+    public static class UuidAuditorConfig {
+
+        @Bean
+        @Primary
+        public AuditorAware<String> uuidAuditorProvider() {
+            return () -> Optional.of(UUID.randomUUID().toString());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class InRequest {
+
+        int sequence;
+
+        @Setup(Level.Trial)
+        public void bind() {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(fakeRequest("user-" + Thread.currentThread().getId())));
+        }
+
+        @TearDown(Level.Trial)
+        public void unbind() {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        Member nextMember() {
+            return new Member(BenchmarkApplication.username(sequence), BenchmarkApplication.age(sequence++));
+        }
+
+        // 헤더와 요청 속성만 동작하는 가짜 요청
+        private static HttpServletRequest fakeRequest(String userId) {
+            Map<String, Object> attributes = new HashMap<>();
+            return (HttpServletRequest) Proxy.newProxyInstance(
+                    HttpServletRequest.class.getClassLoader(),
+                    new Class<?>[]{HttpServletRequest.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getHeader" -> userId;
+                        case "getAttribute" -> attributes.get((String) args[0]);
+                        case "setAttribute" -> attributes.put((String) args[0], args[1]);
+                        case "removeAttribute" -> attributes.remove((String) args[0]);
+                        default -> null;
+                    });
+        }
+    }
+
+    @Benchmark
+    public Member save(InRequest inRequest) {
+        return memberRepository.save(inRequest.nextMember());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int saveAllInBatches(InRequest inRequest) {
+        List<Member> members = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            members.add(inRequest.nextMember());
+        }
+        return memberRepository.saveAllInBatches(members, BATCH_SIZE);
+    }
+}
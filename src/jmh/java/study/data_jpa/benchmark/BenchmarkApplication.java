@@ -0,0 +1,106 @@
+package study.data_jpa.benchmark;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.DataJpaApplication;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 벤치마크용 애플리케이션 실행/데이터 준비
+ * 매 fork마다 새 JVM에서 인메모리 H2를 띄우고, 항상 같은 데이터를 넣어서 결과를 재현할 수 있게 한다.
+ * 쿼리 방식 자체를 비교하기 위해 2차 캐시/쿼리 캐시와 SQL 로그는 끈다.
+ */
+public final class BenchmarkApplication {
+
+    public static final int TEAM_COUNT = 10;
+    public static final int AGE_COUNT = 100;
+
+    private static final String[] DEFAULT_ARGS = {
+            "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+            "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+            "--spring.jpa.properties.hibernate.generate_statistics=false",
+            "--spring.cache.type=none",
+            "--seed.enabled=false",
+            "--decorator.datasource.p6spy.enable-logging=false",
+            "--logging.level.root=warn",
+            "--logging.level.org.hibernate.SQL=off"
+    };
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... args) {
+        return start(WebApplicationType.NONE, args);
+    }
+
+    /**
+     * overrides의 빈을 추가로 등록해서 띄운다. (벤치마크에서만 쓰는 빈으로 바꿔 끼울 때, @Primary로 선언)
+     */
+    public static ConfigurableApplicationContext start(Class<?> overrides, String... args) {
+        SpringApplication application = new SpringApplication(DataJpaApplication.class, overrides);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        return run(application, args);
+    }
+
+    /**
+     * 웹 서버까지 띄운다. (포트는 --server.port로 지정)
+     */
+    public static ConfigurableApplicationContext startWeb(String... args) {
+        return start(WebApplicationType.SERVLET, args);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... args) {
+        SpringApplication application = new SpringApplication(DataJpaApplication.class);
+        application.setWebApplicationType(webApplicationType);
+        return run(application, args);
+    }
+
+    private static ConfigurableApplicationContext run(SpringApplication application, String... args) {
+        return application.run(Stream.concat(Stream.of(DEFAULT_ARGS), Stream.of(args)).toArray(String[]::new));
+    }
+
+    public static String username(int i) {
+        return String.format("member%07d", i);
+    }
+
+    public static int age(int i) {
+        return i % AGE_COUNT;
+    }
+
+    /**
+     * 회원 rows명을 팀 TEAM_COUNT개에 나눠서 저장한다.
+     * 팀 컬렉션(Team.members)에 회원을 쌓지 않도록 changeTeam() 대신 setTeam()을 사용한다.
+     */
+    public static void seed(ConfigurableApplicationContext context, int rows) {
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < TEAM_COUNT; i++) {
+            teams.add(new Team("team" + i));
+        }
+        teams = teamRepository.saveAll(teams);
+
+        int chunkSize = 1000;
+        List<Member> chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < rows; i++) {
+            Member member = new Member(username(i), age(i));
+            member.setTeam(teams.get(i % TEAM_COUNT));
+            chunk.add(member);
+            if (chunk.size() == chunkSize) {
+                memberRepository.saveAllInBatches(chunk, chunkSize);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        memberRepository.saveAllInBatches(chunk, chunkSize);
+    }
+}
@@ -0,0 +1,116 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대량 저장: save() 반복 vs saveAllInBatches()
+ * 결과의 score는 회원 1명당 저장 시간(us/op)이고, 그 역수가 초당 저장한 회원 수(rows/sec)다.
+ * heapPeakMb는 저장하는 동안의 최대 힙 사용량이다.
+ * 회원 객체를 미리 만들어두지 않고 저장하면서 만들기 때문에, 힙 사용량은 영속성 컨텍스트가 쌓이는 정도를 보여준다.
+ * rows를 바꾸면 @OperationsPerInvocation 값도 같이 바꿔야 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MemberInsertBenchmark {
+
+    @Param({"1000000"})
+    int rows;
+
+    @Param({"1000"})
+    int chunkSize;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapPeak {
+
+        public long heapPeakMb;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            heapPeakMb = 0;
+            heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+
+        void record() {
+            long peak = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            heapPeakMb = peak / (1024 * 1024);
+        }
+
+        private static List<MemoryPoolMXBean> heapPools() {
+            return ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .toList();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void clean() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1_000_000)
+    public void saveLoop(HeapPeak heapPeak) {
+        for (int i = 0; i < rows; i++) {
+            memberRepository.save(new Member(BenchmarkApplication.username(i), BenchmarkApplication.age(i)));
+        }
+        heapPeak.record();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1_000_000)
+    public void saveAllInBatches(HeapPeak heapPeak) {
+        List<Member> chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < rows; i++) {
+            chunk.add(new Member(BenchmarkApplication.username(i), BenchmarkApplication.age(i)));
+            if (chunk.size() == chunkSize) {
+                memberRepository.saveAllInBatches(chunk, chunkSize);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        memberRepository.saveAllInBatches(chunk, chunkSize);
+        heapPeak.record();
+    }
+}
@@ -0,0 +1,89 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * offset 페이징 vs 키셋(seek) 페이징
+ * 회원 100만 명에서 1페이지와 10,000페이지를 조회하는 시간을 비교한다.
+ * offset 페이징은 페이지가 깊어질수록 느려지고, 키셋 페이징은 페이지와 상관없이 비슷해야 한다.
+ * 두 방식 모두 count 쿼리는 제외하고 내용 조회만 측정한다.
+ * 키셋 쪽(findAllByOrderByUsernameAscIdAsc)은 @EntityGraph로 team까지 조인하므로 오히려 불리한 조건이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberPagingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000000"})
+    int rows;
+
+    @Param({"1", "10000"})
+    int page; // 1부터 시작
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    PageRequest pageRequest;
+    ScrollPosition position;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, rows);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        pageRequest = PageRequest.of(page - 1, PAGE_SIZE, Sort.by("username", "id"));
+
+        // 키셋 시작 위치 = 이전 페이지의 마지막 회원 (측정 대상 아님)
+        if (page == 1) {
+            position = ScrollPosition.keyset();
+        } else {
+            Member last = memberRepository.findSliceBy(PageRequest.of(page - 2, PAGE_SIZE, Sort.by("username", "id")))
+                    .getContent()
+                    .get(PAGE_SIZE - 1);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("username", last.getUsername());
+            keys.put("id", last.getId());
+            position = ScrollPosition.forward(keys);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<Member> offset() {
+        return memberRepository.findSliceBy(pageRequest);
+    }
+
+    @Benchmark
+    public Window<Member> keyset() {
+        return memberRepository.findAllByOrderByUsernameAscIdAsc(position, Limit.of(PAGE_SIZE));
+    }
+}
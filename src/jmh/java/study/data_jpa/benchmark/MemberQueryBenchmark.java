@@ -0,0 +1,123 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberJpaRepository;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.UsernameOnly;
+import study.data_jpa.repository.UsernameOnlyDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemberRepository 조회 경로 비교
+ * - findByUsername: NamedQuery vs 메서드명 쿼리 vs @Query
+ * - 페치 조인 vs @EntityGraph
+ * - findByAge 페이징(Page, count 쿼리 O) vs 슬라이스(count 쿼리 X)
+ * - 프로젝션(인터페이스, 클래스, DTO 생성자)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberQueryBenchmark {
+
+    @Param({"10000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+
+    String username;
+    int age;
+    PageRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, rows);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+
+        int target = rows / 2;
+        username = BenchmarkApplication.username(target);
+        age = BenchmarkApplication.age(target);
+        pageRequest = PageRequest.of(1, 20, Sort.by(Sort.Direction.ASC, "username"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> findByUsernameNamedQuery() {
+        return memberRepository.findByUsername(username);
+    }
+
+    @Benchmark
+    public List<Member> findByUsernameJpaNamedQuery() {
+        return memberJpaRepository.findByUsername(username);
+    }
+
+    @Benchmark
+    public List<Member> findByUsernameDerived() {
+        return memberRepository.findListByUsername(username);
+    }
+
+    @Benchmark
+    public List<Member> findByUsernameQueryAnnotation() {
+        return memberRepository.findMember(username, age);
+    }
+
+    @Benchmark
+    public List<Member> findMemberFetchJoinTeam() {
+        return memberRepository.findMemberFetchJoinTeam();
+    }
+
+    @Benchmark
+    public List<Member> findAllEntityGraph() {
+        return memberRepository.findAll();
+    }
+
+    @Benchmark
+    public Page<Member> findByAgePage() {
+        return memberRepository.findByAge(age, pageRequest);
+    }
+
+    @Benchmark
+    public Slice<Member> findByAgeSlice() {
+        return memberRepository.findSliceByAge(age, pageRequest);
+    }
+
+    @Benchmark
+    public List<UsernameOnly> findProjectionsByUsername() {
+        return memberRepository.findProjectionsByUsername(username);
+    }
+
+    @Benchmark
+    public List<UsernameOnlyDto> findProjectionsByUsernameDto() {
+        return memberRepository.findProjectionsByUsernameDto(username);
+    }
+
+    @Benchmark
+    public List<MemberDto> findMemberDto() {
+        return memberRepository.findMemberDto();
+    }
+}
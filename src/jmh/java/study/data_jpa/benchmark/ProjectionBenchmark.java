@@ -0,0 +1,76 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.ProjectionClasses;
+import study.data_jpa.repository.UsernameOnly;
+import study.data_jpa.repository.UsernameOnlyDto;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 결과가 많은 프로젝션 비교 (나이 하나 = rows / 100명)
+ * - interfaceProxy: UsernameOnly 인터페이스 (row마다 JDK 프록시, getUsername()도 프록시를 거친다)
+ * - concreteClass: ProjectionClasses가 생성한 UsernameOnly 구현 클래스 (생성자로 바로 생성)
+ * - dto: UsernameOnlyDto
+ * 프록시 비용은 값을 꺼낼 때도 들기 때문에 모든 username을 읽어서 Blackhole에 넘긴다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectionBenchmark {
+
+    @Param({"100000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    int age;
+    Class<? extends UsernameOnly> usernameOnlyClass;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, rows);
+        memberRepository = context.getBean(MemberRepository.class);
+        age = BenchmarkApplication.age(rows / 2);
+        usernameOnlyClass = ProjectionClasses.of(UsernameOnly.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void interfaceProxy(Blackhole blackhole) {
+        for (UsernameOnly usernameOnly : memberRepository.findUsernamesByAge(age)) {
+            blackhole.consume(usernameOnly.getUsername());
+        }
+    }
+
+    @Benchmark
+    public void concreteClass(Blackhole blackhole) {
+        for (UsernameOnly usernameOnly : memberRepository.findProjectionsByAge(age, usernameOnlyClass)) {
+            blackhole.consume(usernameOnly.getUsername());
+        }
+    }
+
+    @Benchmark
+    public void dto(Blackhole blackhole) {
+        for (UsernameOnlyDto dto : memberRepository.findUsernameDtosByAge(age)) {
+            blackhole.consume(dto.getUsername());
+        }
+    }
+}
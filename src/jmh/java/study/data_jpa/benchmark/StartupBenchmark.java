@@ -0,0 +1,53 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시작 시간: 애플리케이션 실행 ~ 첫 요청(GET /members) 응답까지
+ * default: EntityManagerFactory를 시작 스레드에서 만들고 리포지토리도 바로 초기화
+ * deferred: EntityManagerFactory를 백그라운드에서 만들고, 리포지토리 초기화는 컨텍스트 준비가 끝날 때로 미룬다.
+ * iteration마다 컨텍스트를 새로 띄우고 닫는다. (SingleShotTime, 같은 JVM이라 워밍업 이후 값은 클래스 로딩이 빠진 시간)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    @Param({"default", "deferred"})
+    String bootstrapMode;
+
+    ConfigurableApplicationContext context;
+
+    @Benchmark
+    public int timeToFirstRequest() throws IOException, InterruptedException {
+        context = BenchmarkApplication.startWeb(
+                "--server.port=0",
+                "--spring.data.jpa.repositories.bootstrap-mode=" + bootstrapMode);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members?size=1")).GET().build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,112 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 부하 테스트: 플랫폼 스레드(톰캣 스레드 풀) vs 가상 스레드
+ * 클라이언트 200개가 동시에 GET /members를 호출한다.
+ * 가상 스레드 모드에서 동시 요청 제한(virtual-threads.max-concurrent-requests)에 걸린 요청은 503으로 빨리 실패하므로 성공으로 세지 않는다.
+ * - listMembers (Throughput): 결과의 listMembers:ok가 초당 성공(200) 수, listMembers:rejected가 초당 거절(503) 수
+ * - listMembersLatency (SampleTime): 503이면 200을 받을 때까지 다시 요청하므로, 샘플 하나 = 클라이언트가 성공 응답을 받기까지 걸린 시간 (p0.99 = p99)
+ * 그 외의 응답 코드는 예외로 벤치마크를 실패시킨다.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(200)
+public class ThreadingModeBenchmark {
+
+    @Param({"platform", "virtual"})
+    String mode;
+
+    @Param({"10000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.startWeb(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + mode.equals("virtual"));
+        BenchmarkApplication.seed(context, rows);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members?page=10&size=20")).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 스레드(클라이언트)별 응답 수. JMH가 iteration마다 초당 개수로 보고한다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Responses {
+
+        public long ok;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ok = 0;
+            rejected = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void listMembers(Responses responses) throws IOException, InterruptedException {
+        int status = send();
+        if (status == 200) {
+            responses.ok++;
+        } else if (status == 503) {
+            responses.rejected++;
+        } else {
+            throw new IllegalStateException("예상하지 못한 응답 코드: " + status);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public int listMembersLatency() throws IOException, InterruptedException {
+        int status;
+        do {
+            status = send();
+        } while (status == 503);
+
+        if (status != 200) {
+            throw new IllegalStateException("예상하지 못한 응답 코드: " + status);
+        }
+        return status;
+    }
+
+    private int send() throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
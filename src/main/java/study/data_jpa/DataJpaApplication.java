@@ -1,15 +1,23 @@
 package study.data_jpa;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableAsync;
+import study.data_jpa.config.RequestAuditorAware;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.UUID;
 
-@EnableJpaAuditing
+@EnableAsync
+@EnableCaching
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 @SpringBootApplication
 public class DataJpaApplication {
 
@@ -17,9 +25,27 @@ public class DataJpaApplication {
 		SpringApplication.run(DataJpaApplication.class, args);
 	}
 
+	/**
+	 * 등록자/수정자
+	 * 저장/수정할 때마다 호출되므로 매번 새로 계산(UUID 생성 등)하지 않고 요청당 한 번만 구한다.
+	 */
 	@Bean
-	public AuditorAware<String> auditorProvider() {
-		return () -> Optional.of(UUID.randomUUID().toString());
+	public AuditorAware<String> auditorProvider(@Value("${auditing.user-header:X-User-Id}") String userHeader,
+												@Value("${auditing.system-auditor:system}") String systemAuditor) {
+		return new RequestAuditorAware(userHeader, systemAuditor);
+	}
+
+	/**
+	 * 등록일/수정일은 공용 Clock 기준 (테스트에서는 고정된 Clock으로 바꿔 끼울 수 있다)
+	 */
+	@Bean
+	public Clock clock() {
+		return Clock.systemDefaultZone();
+	}
+
+	@Bean
+	public DateTimeProvider auditingDateTimeProvider(Clock clock) {
+		return () -> Optional.of(LocalDateTime.now(clock));
 	}
 
 }
@@ -0,0 +1,58 @@
+package study.data_jpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 비동기 리포지토리 메서드(@Async("repositoryExecutor"))를 실행하는 executor
+ * 비동기 조회도 결국 커넥션을 하나씩 쓰기 때문에 동시 실행 수를 커넥션 풀 크기 이하로 제한한다.
+ * 큐가 가득 차면 호출한 스레드에서 직접 실행해서(CallerRunsPolicy) 자연스럽게 속도를 늦춘다.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String REPOSITORY_EXECUTOR = "repositoryExecutor";
+
+    /**
+     * 기본 executor (applicationTaskExecutor)
+     * Executor 빈(repositoryExecutor)을 등록하면 스프링 부트가 기본 executor를 자동으로 만들지 않기 때문에 같은 설정(spring.task.execution.*)으로 직접 등록한다.
+     * MVC 비동기 처리(StreamingResponseBody 등), qualifier 없는 @Async, JPA 백그라운드 부트스트랩(bootstrap-mode: deferred)이 이 executor를 쓴다.
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder,
+                                                     SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder,
+                                                     @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        return virtualThreads ? simpleAsyncTaskExecutorBuilder.build() : threadPoolTaskExecutorBuilder.build();
+    }
+
+    @Bean(name = REPOSITORY_EXECUTOR)
+    public AsyncTaskExecutor repositoryExecutor(@Value("${async.repository.pool-size:8}") int poolSize,
+                                                @Value("${async.repository.queue-capacity:100}") int queueCapacity,
+                                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("repository-async-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("repository-async-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor; // initialize()는 컨테이너가 호출한다. (afterPropertiesSet, 직접 호출하면 스레드 풀이 두 번 만들어진다)
+    }
+}
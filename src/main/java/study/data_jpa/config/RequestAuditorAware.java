@@ -0,0 +1,60 @@
+package study.data_jpa.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.Principal;
+import java.util.Optional;
+
+/**
+ * 등록자/수정자(@CreatedBy, @LastModifiedBy)
+ * 요청마다 한 번만 구해서 요청 속성에 저장해두고, 같은 요청의 나머지 저장/수정에서는 저장해둔 값을 그대로 쓴다.
+ * - 로그인 사용자(request.getUserPrincipal())가 있으면 그 이름
+ * - 없으면 헤더(auditing.user-header) 값
+ * - HTTP 요청 밖(스케줄러, 배치, 시작 시점 데이터 등)이거나 둘 다 없으면 systemAuditor
+ */
+public class RequestAuditorAware implements AuditorAware<String> {
+
+    private static final String AUDITOR_ATTRIBUTE = RequestAuditorAware.class.getName() + ".AUDITOR";
+
+    private final String userHeader;
+    private final Optional<String> systemAuditor;
+
+    public RequestAuditorAware(String userHeader, String systemAuditor) {
+        this.userHeader = userHeader;
+        this.systemAuditor = Optional.of(systemAuditor);
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return systemAuditor;
+        }
+
+        Object cached = attributes.getAttribute(AUDITOR_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached != null) {
+            return Optional.of((String) cached);
+        }
+
+        String auditor = resolve(servletAttributes.getRequest());
+        attributes.setAttribute(AUDITOR_ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+        return Optional.of(auditor);
+    }
+
+    private String resolve(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return principal.getName();
+        }
+
+        String header = request.getHeader(userHeader);
+        if (header != null && !header.isBlank()) {
+            return header;
+        }
+        return systemAuditor.get();
+    }
+}
@@ -0,0 +1,125 @@
+package study.data_jpa.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 가상 스레드 모드 (spring.threads.virtual.enabled=true일 때만 활성화)
+ * 플랫폼 스레드 모드에서는 톰캣 스레드 풀(기본 200개)이 동시 요청 수를 제한해주지만,
+ * 가상 스레드는 요청마다 새로 만들어지기 때문에 느린 DB 앞에서 수천 개의 요청이 커넥션 풀로 몰릴 수 있다.
+ * 그래서 동시에 처리하는 요청 수를 세마포어로 제한하고, 자리를 못 얻으면 바로 503으로 응답한다.
+ * 비동기 요청은 비동기 처리가 끝날 때까지 자리를 잡고 있는다.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${virtual-threads.max-concurrent-requests:20}") int maxConcurrentRequests,
+            @Value("${virtual-threads.acquire-timeout:1s}") Duration acquireTimeout) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(maxConcurrentRequests, acquireTimeout));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    static class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+        private final Semaphore permits;
+        private final Duration acquireTimeout;
+
+        ConcurrencyLimitFilter(int maxConcurrentRequests, Duration acquireTimeout) {
+            this.permits = new Semaphore(maxConcurrentRequests, true);
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+
+            if (!acquired) {
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+                return;
+            }
+
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                if (request.isAsyncStarted()) {
+                    // 비동기 요청(SSE, StreamingResponseBody, CompletableFuture)은 첫 디스패치가 끝나도 DB를 계속 쓰므로
+                    // 비동기 처리가 끝날 때(완료/에러/타임아웃) 반납한다.
+                    request.getAsyncContext().addListener(new ReleasePermitListener(permits));
+                } else {
+                    permits.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * 비동기 요청이 끝나면 자리를 한 번만 반납한다. (에러/타임아웃 뒤에도 onComplete가 불리므로 중복 반납 방지)
+     */
+    static class ReleasePermitListener implements AsyncListener {
+
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasePermitListener(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        // 비동기 처리를 다시 시작하면 리스너가 지워지므로 새 AsyncContext에 다시 등록한다.
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
@@ -1,22 +1,49 @@
 package study.data_jpa.controller;
 
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 import study.data_jpa.dto.MemberDto;
+import study.data_jpa.dto.MemberOverviewDto;
+import study.data_jpa.dto.MemberScrollDto;
+import study.data_jpa.dto.MemberSearchCondition;
 import study.data_jpa.entity.Member;
 import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+import study.data_jpa.service.MemberExportService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_SCROLL_SIZE = 2000;
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final MemberExportService memberExportService;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
@@ -47,18 +74,130 @@ public class MemberController {
      * 페이징에 대한 기본값을 변경하고 싶다면,
      * 글로벌 설정은 application.yml 파일에서 설정하면 되고,
      * 메서드 단위로 특별한 설정을 하고 싶다면, Pageable 파라미터 앞에 @PageableDefault를 설정하면 된다.
+     *
+     * 내용은 Slice(size + 1개 조회)로 가져오고, 전체 개수는 캐시된 count를 사용한다.
+     * PageableExecutionUtils는 첫 페이지에서 size보다 적게 조회된 경우 등 count가 필요 없으면 count 자체를 생략한다.
+     * 그래서 매 요청마다 count 쿼리가 나가지 않는다.
+     * 내용은 DTO로 바로 조회하기 때문에 엔티티를 만들지 않고, 팀 이름도 함께 채워진다.
      */
     @GetMapping("/members")
     public Page<MemberDto> list(@PageableDefault(size = 5, sort = "username") Pageable pageable) {
-        Page<Member> page = memberRepository.findAll(pageable);
-        Page<MemberDto> map = page.map(member -> new MemberDto(member.getId(), member.getUsername(), null));
-        return map;
+        Slice<MemberDto> slice = memberRepository.findMemberDtoSlice(pageable);
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable, memberRepository::countMembers);
     }
 
-    @PostConstruct
-    public void init() {
-        for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("user" + i, i));
+    /**
+     * 전체 개수가 필요 없는 화면(무한 스크롤 등)은 Slice로 응답해서 count를 아예 하지 않는다.
+     */
+    @GetMapping("/members/slice")
+    public Slice<MemberDto> slice(@PageableDefault(size = 5, sort = "username") Pageable pageable) {
+        return memberRepository.findMemberDtoSlice(pageable);
+    }
+
+    /**
+     * 동적 검색
+     * ex) http://localhost:8080/members/search?usernamePrefix=user&ageGoe=10&ageLoe=20&sort=age,desc
+     */
+    @GetMapping("/members/search")
+    public Slice<MemberDto> search(MemberSearchCondition condition, @PageableDefault(size = 20, sort = "username") Pageable pageable) {
+        return memberRepository.search(condition, pageable);
+    }
+
+    /**
+     * 키셋(seek) 페이징
+     * ex) http://localhost:8080/members/scroll?size=20 -> 응답의 nextToken을 token 파라미터로 넘겨서 다음 페이지 조회
+     * page 번호 대신 마지막으로 읽은 위치(token)를 주고받기 때문에 페이지가 깊어져도 조회 비용이 일정하다.
+     */
+    @GetMapping("/members/scroll")
+    public MemberScrollDto scroll(@RequestParam(value = "token", required = false) String token,
+                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        ScrollPosition position;
+        try {
+            position = ScrollToken.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 token입니다.", e);
         }
+
+        int limit = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        Window<Member> window = memberRepository.findAllByOrderByUsernameAscIdAsc(position, Limit.of(limit));
+
+        List<MemberDto> content = window.map(MemberController::toDto).getContent();
+        String nextToken = window.hasNext() ? ScrollToken.encode(window.positionAt(window.size() - 1)) : null;
+        return new MemberScrollDto(content, nextToken, window.hasNext());
+    }
+
+    /**
+     * 회원 목록 SSE 스트리밍
+     * ex) curl -N http://localhost:8080/members/stream
+     * 키셋 페이징(findAllByOrderByUsernameAscIdAsc)으로 STREAM_CHUNK_SIZE명씩 읽으면서 내보낸다.
+     * Flux.generate는 클라이언트가 요청(demand)할 때만 다음 청크를 조회하고, flatMapIterable의 prefetch를 1로 둬서
+     * 서버에는 많아야 청크 하나만 쌓인다. -> 느린 클라이언트 때문에 전체 결과를 버퍼링하지 않는다.
+     * 청크마다 짧은 읽기 전용 트랜잭션으로 조회하기 때문에 오래 열려 있는 커서나 트랜잭션도 없다.
+     * 리포지토리 호출은 블로킹이므로 boundedElastic 스케줄러에서 실행한다.
+     */
+    @GetMapping(value = "/members/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<MemberDto> stream() {
+        return Flux.<List<MemberDto>, ScrollPosition>generate(ScrollPosition::keyset, (position, sink) -> {
+                    Window<Member> window = memberRepository.findAllByOrderByUsernameAscIdAsc(position, Limit.of(STREAM_CHUNK_SIZE));
+                    sink.next(window.map(MemberController::toDto).getContent());
+
+                    if (!window.hasNext()) {
+                        sink.complete();
+                        return position;
+                    }
+                    return window.positionAt(window.size() - 1);
+                })
+                .flatMapIterable(Function.identity(), 1)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 비동기 조회 조합
+     * ex) http://localhost:8080/members/overview?username=user1&age=1
+     * 세 조회를 동시에 시작하고 다 끝나면 합친다. (순서대로 호출하면 세 조회 시간의 합, 동시에 하면 가장 느린 조회 시간)
+     * 컨트롤러가 CompletableFuture를 반환하면 스프링 MVC가 비동기로 처리해서 기다리는 동안 요청 스레드도 반납된다.
+     */
+    @GetMapping("/members/overview")
+    public CompletableFuture<MemberOverviewDto> overview(@RequestParam("username") String username,
+                                                         @RequestParam("age") int age) {
+        CompletableFuture<List<Member>> members = memberRepository.findAsyncByUsername(username);
+        CompletableFuture<Long> sameAgeCount = memberRepository.countAsyncByAge(age);
+        CompletableFuture<Long> teamCount = teamRepository.countAsyncBy();
+
+        return CompletableFuture.allOf(members, sameAgeCount, teamCount)
+                .thenApply(ignored -> new MemberOverviewDto(
+                        members.join().stream()
+                                .map(MemberController::toDto)
+                                .toList(),
+                        sameAgeCount.join(),
+                        teamCount.join()));
+    }
+
+    /**
+     * 회원 전체 내보내기
+     * ex) http://localhost:8080/members/export?format=csv
+     * StreamingResponseBody는 별도 스레드에서 응답 OutputStream에 직접 쓰기 때문에,
+     * 조회한 만큼 바로 클라이언트로 내보내고 전체 결과를 메모리에 모으지 않는다.
+     */
+    @GetMapping("/members/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        if ("csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=members.csv")
+                    .body(memberExportService::exportCsv);
+        }
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=members.ndjson")
+                    .body(memberExportService::exportNdjson);
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지원하지 않는 format입니다. (ndjson, csv)");
+    }
+
+    // 팀은 미리 조회(@EntityGraph)된 상태여야 한다.
+    private static MemberDto toDto(Member member) {
+        return new MemberDto(member.getId(), member.getUsername(), member.getTeam() != null ? member.getTeam().getName() : null);
     }
 }
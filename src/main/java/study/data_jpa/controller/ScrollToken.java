@@ -0,0 +1,44 @@
+package study.data_jpa.controller;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 키셋 위치(username, id)를 클라이언트에게 넘겨줄 불투명한 토큰으로 변환한다.
+ * 클라이언트는 토큰 내용을 몰라도 되고, 받은 토큰을 그대로 돌려주기만 하면 된다.
+ * 형식: Base64URL("id:username") -> username에 ':'가 있어도 첫 번째 ':'로만 나누기 때문에 괜찮다.
+ */
+final class ScrollToken {
+
+    private ScrollToken() {
+    }
+
+    static String encode(ScrollPosition position) {
+        KeysetScrollPosition keyset = (KeysetScrollPosition) position;
+        Map<String, ?> keys = keyset.getKeys();
+        String raw = keys.get("id") + ":" + keys.get("username");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ScrollPosition decode(String token) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset(); // 첫 페이지
+        }
+
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("잘못된 scroll token: " + token);
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("username", raw.substring(separator + 1));
+        keys.put("id", Long.valueOf(raw.substring(0, separator)));
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,18 @@
+package study.data_jpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 회원 조회 + 같은 나이 회원 수 + 팀 수를 한 번에 응답
+ */
+@Data
+@AllArgsConstructor
+public class MemberOverviewDto {
+
+    private List<MemberDto> members;
+    private long sameAgeCount;
+    private long teamCount;
+}
@@ -0,0 +1,19 @@
+package study.data_jpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 응답
+ * nextToken을 그대로 다음 요청에 넘기면 이어서 조회한다. (마지막 페이지면 null)
+ */
+@Data
+@AllArgsConstructor
+public class MemberScrollDto {
+
+    private List<MemberDto> content;
+    private String nextToken;
+    private boolean hasNext;
+}
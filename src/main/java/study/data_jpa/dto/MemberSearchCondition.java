@@ -0,0 +1,16 @@
+package study.data_jpa.dto;
+
+import lombok.Data;
+
+/**
+ * 회원 검색 조건
+ * 값이 없는(null, 빈 문자열) 조건은 검색에서 빠진다.
+ */
+@Data
+public class MemberSearchCondition {
+
+    private String usernamePrefix;
+    private Integer ageGoe; // 나이 >= ageGoe
+    private Integer ageLoe; // 나이 <= ageLoe
+    private String teamName;
+}
@@ -0,0 +1,13 @@
+package study.data_jpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TeamSummaryDto {
+
+    private Long id;
+    private String name;
+    private Long memberCount;
+}
@@ -8,11 +8,14 @@ import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
-@EntityListeners(AuditingEntityListener.class)
+/**
+ * 감사 필드는 BatchAwareAuditingEntityListener가 채운다.
+ * (평소에는 AuditingEntityListener와 동일, BatchAuditing 범위 안에서는 미리 정한 값으로 한 번에)
+ */
+@EntityListeners(BatchAwareAuditingEntityListener.class)
 @MappedSuperclass
 @Getter
 public class BaseEntity {
@@ -30,4 +33,16 @@ public class BaseEntity {
 
     @LastModifiedBy
     private String modifiedBy;
+
+    // 배치 감사 모드 (AuditingHandler처럼 등록 시에도 수정자/수정일을 같이 채운다)
+    void markCreated(String auditor, LocalDateTime now) {
+        this.createdBy = auditor;
+        this.createdDate = now;
+        markModified(auditor, now);
+    }
+
+    void markModified(String auditor, LocalDateTime now) {
+        this.modifiedBy = auditor;
+        this.lastModifiedDate = now;
+    }
 }
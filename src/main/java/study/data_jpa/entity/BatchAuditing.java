@@ -0,0 +1,58 @@
+package study.data_jpa.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * 배치 감사(auditing) 모드
+ * begin()으로 연 범위 안에서 저장/수정되는 엔티티는 AuditingHandler를 거치지 않고,
+ * 범위를 열 때 한 번 정한 등록자/시각이 그대로 들어간다. (엔티티마다 리플렉션으로 필드를 찾고 값을 구하지 않는다)
+ *
+ * try (BatchAuditing.Scope scope = BatchAuditing.begin(auditor, now)) { ... persist ... }
+ */
+public final class BatchAuditing {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private BatchAuditing() {
+    }
+
+    public static Scope begin(String auditor, LocalDateTime now) {
+        Scope scope = new Scope(auditor, now, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static Scope current() {
+        return CURRENT.get();
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final String auditor;
+        private final LocalDateTime now;
+        private final Scope parent;
+
+        private Scope(String auditor, LocalDateTime now, Scope parent) {
+            this.auditor = auditor;
+            this.now = now;
+            this.parent = parent;
+        }
+
+        String getAuditor() {
+            return auditor;
+        }
+
+        LocalDateTime getNow() {
+            return now;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package study.data_jpa.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.data.auditing.AuditingHandler;
+
+/**
+ * AuditingEntityListener 대신 BaseEntity에 붙는 리스너
+ * 평소에는 AuditingEntityListener와 똑같이 AuditingHandler에 위임하고,
+ * BatchAuditing 범위 안에서는 미리 정해둔 등록자/시각을 BaseEntity에 바로 넣는다.
+ * 하이버네이트가 스프링 빈 컨테이너로 리스너를 만들기 때문에 생성자로 AuditingHandler를 주입받을 수 있다.
+ */
+public class BatchAwareAuditingEntityListener {
+
+    private final ObjectFactory<AuditingHandler> auditingHandler;
+
+    public BatchAwareAuditingEntityListener(ObjectFactory<AuditingHandler> auditingHandler) {
+        this.auditingHandler = auditingHandler;
+    }
+
+    @PrePersist
+    public void touchForCreate(Object target) {
+        BatchAuditing.Scope scope = BatchAuditing.current();
+        if (scope != null && target instanceof BaseEntity entity) {
+            entity.markCreated(scope.getAuditor(), scope.getNow());
+            return;
+        }
+        auditingHandler.getObject().markCreated(target);
+    }
+
+    @PreUpdate
+    public void touchForUpdate(Object target) {
+        BatchAuditing.Scope scope = BatchAuditing.current();
+        if (scope != null && target instanceof BaseEntity entity) {
+            entity.markModified(scope.getAuditor(), scope.getNow());
+            return;
+        }
+        auditingHandler.getObject().markModified(target);
+    }
+}
@@ -2,6 +2,8 @@ package study.data_jpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter @Setter
@@ -28,17 +30,52 @@ import lombok.*;
  */
 @NamedQuery(
         name="Member.findByUsername",
-        query="select m from Member m where m.username = :username"
+        query="select m from Member m where m.username = :username",
+        hints = @QueryHint(name = "org.hibernate.cacheable", value = "true") // 쿼리 캐시: 같은 username이면 결과를 캐시에서 가져온다.
 )
+/**
+ * 순수 JPA 리포지토리(MemberJpaRepository, MemberRepositoryImpl)에서 쓰는 쿼리
+ * 문자열 JPQL은 호출할 때마다 쿼리 플랜 캐시를 문자열로 찾아야 하지만, NamedQuery는 로딩 시점에 한 번 파싱해두고 이름으로 꺼내 쓴다.
+ * 이름이 "Member.메서드명"이면 스프링 데이터 JPA(MemberRepository)가 같은 이름의 메서드에 이 쿼리를 써버리므로 겹치지 않게 짓는다.
+ */
+@NamedQuery(name = "Member.findAllMembers", query = "select m from Member m")
+@NamedQuery(name = "Member.countAll", query = "select count(m) from Member m")
+@NamedQuery(name = "Member.countAllByAge", query = "select count(m) from Member m where m.age = :age")
+@NamedQuery(name = "Member.findAllByUsernames", query = "select m from Member m where m.username in :names")
+@NamedQuery(name = "Member.selectOneByUsername", query = "select 1 from Member m where m.username = :username")
+@NamedQuery(name = "Member.findByUsernameAndOlderThan",
+        query = "select m from Member m where m.username = :username and m.age > :age")
+@NamedQuery(name = "Member.findPageByAge", query = "select m from Member m where m.age = :age order by m.username desc")
+@NamedQuery(name = "Member.findFirstKeysetPageByAge",
+        query = "select m from Member m where m.age = :age order by m.username asc, m.id asc")
+@NamedQuery(name = "Member.findKeysetPageByAge",
+        query = "select m from Member m where m.age = :age" +
+                " and (m.username > :username or (m.username = :username and m.id > :id))" +
+                " order by m.username asc, m.id asc")
+@NamedQuery(name = "Member.bulkAgePlusFrom", query = "update Member m set m.age = m.age + 1 where m.age >= :age")
+/**
+ * 키셋(seek) 페이징은 (username, member_id) 순서로 다음 페이지를 찾아가기 때문에 같은 순서의 인덱스가 필요하다.
+ * 인덱스가 있어야 몇 번째 페이지든 인덱스를 타고 바로 시작 위치를 찾는다.
+ * username이 맨 앞 컬럼이라 username 조회(findByUsername, existsByUsername)도 이 인덱스를 사용한다.
+ */
+@Table(indexes = @Index(name = "idx_member_username_id", columnList = "username, member_id"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Team.members 컬렉션 캐시가 id로 Member를 찾아오므로 함께 캐시
 public class Member extends BaseEntity{
 
+    /**
+     * pooled 시퀀스
+     * allocationSize만큼 id를 한 번에 받아와서 메모리에서 나눠 쓰기 때문에, insert할 때마다 시퀀스를 호출하지 않는다.
+     * (50개 저장 시 시퀀스 호출 1~2번) 배치 insert를 하려면 id를 미리 알아야 하므로 IDENTITY 대신 SEQUENCE를 사용한다.
+     */
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
     private String username;
     private int age;
 
+    // 지연 로딩 + default_batch_fetch_size: 회원 N명의 팀을 하나씩 조회하지 않고 in 절로 한 번에 조회
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
@@ -2,6 +2,8 @@ package study.data_jpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,14 +13,25 @@ import java.util.List;
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+/**
+ * 2차 캐시
+ * 영속성 컨텍스트(1차 캐시)는 트랜잭션 단위라서 요청마다 DB를 다시 조회한다.
+ * 2차 캐시는 애플리케이션 단위로 공유되기 때문에, 자주 읽고 거의 안 바뀌는 Team은 DB 대신 캐시에서 가져온다.
+ * READ_WRITE: 수정 중인 데이터는 다른 트랜잭션이 캐시에서 읽지 않도록 soft lock을 건다.
+ */
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedQuery(name = "Team.findAllTeams", query = "select t from Team t")
+@NamedQuery(name = "Team.countAll", query = "select count(t) from Team t")
 public class Team {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
     private String name;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 컬렉션 캐시 (Member id 목록)
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
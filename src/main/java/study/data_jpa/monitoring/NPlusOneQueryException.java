@@ -0,0 +1,11 @@
+package study.data_jpa.monitoring;
+
+/**
+ * 한 작업 안에서 같은 SQL이 threshold번을 넘게 실행된 경우 (query-metrics.n-plus-one.fail=true일 때만 발생)
+ */
+public class NPlusOneQueryException extends RuntimeException {
+
+    public NPlusOneQueryException(String scope, String sql, int executions) {
+        super("N+1 의심: [" + scope + "]에서 같은 SQL이 " + executions + "번 실행되었습니다. sql = " + sql);
+    }
+}
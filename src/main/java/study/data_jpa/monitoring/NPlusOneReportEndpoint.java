@@ -0,0 +1,39 @@
+package study.data_jpa.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/queries
+ * 최근 N+1로 의심된 요청 목록 (최대 MAX_REPORTS개)
+ */
+@Component
+@Endpoint(id = "queries")
+public class NPlusOneReportEndpoint {
+
+    private static final int MAX_REPORTS = 50;
+
+    private final Deque<Report> reports = new ArrayDeque<>();
+
+    public record Report(Instant detectedAt, String request, Map<String, Integer> repeatedStatements) {
+    }
+
+    synchronized void report(String request, Map<String, Integer> repeatedStatements) {
+        if (reports.size() == MAX_REPORTS) {
+            reports.removeLast();
+        }
+        reports.addFirst(new Report(Instant.now(), request, repeatedStatements));
+    }
+
+    @ReadOperation
+    public synchronized List<Report> reports() {
+        return List.copyOf(reports);
+    }
+}
@@ -0,0 +1,86 @@
+package study.data_jpa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP 요청 하나를 QueryScope로 감싸서 요청당 SQL 실행 횟수, 조회 row 수, SQL 실행 시간을 기록한다.
+ * - http.jdbc.statements / http.jdbc.rows / http.jdbc.time (uri 태그) -> /actuator/metrics
+ * - 같은 SQL이 query-metrics.n-plus-one.threshold번을 넘게 실행되면 경고 로그 + /actuator/queries에 기록
+ *   query-metrics.n-plus-one.fail=true면 넘는 순간 NPlusOneQueryException (테스트용)
+ */
+@Slf4j
+@Component
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final NPlusOneReportEndpoint reportEndpoint;
+    private final int nPlusOneThreshold;
+    private final boolean failOnNPlusOne;
+
+    public QueryMetricsFilter(MeterRegistry meterRegistry,
+                              NPlusOneReportEndpoint reportEndpoint,
+                              @Value("${query-metrics.n-plus-one.threshold:10}") int nPlusOneThreshold,
+                              @Value("${query-metrics.n-plus-one.fail:false}") boolean failOnNPlusOne) {
+        this.meterRegistry = meterRegistry;
+        this.reportEndpoint = reportEndpoint;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.failOnNPlusOne = failOnNPlusOne;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String name = request.getMethod() + " " + request.getRequestURI();
+        try (QueryScope scope = QueryScope.open(name, nPlusOneThreshold, failOnNPlusOne)) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                // 예외로 끝난 요청(N+1 예외 포함)도 그때까지 실행한 SQL은 기록한다.
+                record(request, scope);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryScope scope) {
+        // 요청 URI 대신 매핑된 패턴(/members/{id})으로 태그를 붙여야 태그 종류가 무한히 늘어나지 않는다.
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.jdbc.statements")
+                .description("HTTP 요청당 SQL 실행 횟수")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.getStatementCount());
+        DistributionSummary.builder("http.jdbc.rows")
+                .description("HTTP 요청당 조회한 row 수")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.getRowCount());
+        Timer.builder("http.jdbc.time")
+                .description("HTTP 요청당 SQL 실행 시간 합계")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+        Map<String, Integer> repeated = scope.getRepeatedStatements();
+        if (!repeated.isEmpty()) {
+            log.warn("N+1 의심: [{}] 같은 SQL이 {}번을 넘게 실행되었습니다. {}", scope.getName(), nPlusOneThreshold, repeated);
+            reportEndpoint.report(scope.getName(), repeated);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package study.data_jpa.monitoring;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * p6spy가 감싼 커넥션에서 SQL이 실행될 때마다 호출된다. (p6spy starter가 JdbcEventListener 빈을 자동 등록)
+ * - jdbc.statements: 리포지토리 메서드별 SQL 실행 시간 (히스토그램)
+ * - jdbc.rows: 리포지토리 메서드별 조회된 row 수
+ * - 현재 열린 QueryScope(HTTP 요청 등)에 SQL 실행 횟수/모양/row 수 기록
+ * SQL마다, row마다 호출되므로 미터는 method 태그별로 한 번만 등록하고 캐시해서 쓴다. (매번 레지스트리에서 찾지 않는다)
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryMetricsListener extends JdbcEventListener {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> errorTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rowCounters = new ConcurrentHashMap<>();
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        String method = RepositoryMethodTagger.current();
+        Timer timer = e == null
+                ? successTimers.computeIfAbsent(method, m -> statementTimer(m, "success"))
+                : errorTimers.computeIfAbsent(method, m -> statementTimer(m, "error"));
+        timer.record(timeElapsedNanos, TimeUnit.NANOSECONDS);
+
+        QueryScope scope = QueryScope.current();
+        if (scope != null) {
+            scope.onStatement(statementInformation.getSql(), timeElapsedNanos);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        if (!hasNext) {
+            return;
+        }
+
+        rowCounters.computeIfAbsent(RepositoryMethodTagger.current(), this::rowCounter).increment();
+
+        QueryScope scope = QueryScope.current();
+        if (scope != null) {
+            scope.onRow();
+        }
+    }
+
+    private Timer statementTimer(String method, String outcome) {
+        return Timer.builder("jdbc.statements")
+                .description("리포지토리 메서드별 SQL 실행 시간")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter rowCounter(String method) {
+        return Counter.builder("jdbc.rows")
+                .description("리포지토리 메서드별 조회된 row 수")
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+}
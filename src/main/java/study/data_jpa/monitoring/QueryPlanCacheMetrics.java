@@ -0,0 +1,42 @@
+package study.data_jpa.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * 쿼리 플랜 캐시 hit 비율 (hibernate.query.plan.cache.hit.ratio)
+ * 문자열 JPQL(@Query, em.createQuery)을 해석한 결과를 캐시에서 찾은 비율이다.
+ * 워밍업 이후에도 비율이 1에 가깝지 않으면 매번 다른 JPQL 문자열을 만들어서 새로 파싱하고 있다는 뜻이다.
+ * NamedQuery는 로딩 시점에 미리 해석해둔 것을 쓰기 때문에 hit/miss에 잡히지 않는다. (파싱 자체가 없다)
+ * hit/miss 횟수는 hibernate-micrometer가 hibernate.cache.query.plan으로 올려준다.
+ * (generate_statistics: true 일 때만 값이 쌓인다)
+ */
+@Component
+public class QueryPlanCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public QueryPlanCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // EntityManagerFactory는 백그라운드에서 만들어질 수 있으므로(bootstrap-mode: deferred) 값을 읽을 때 꺼낸다.
+        Gauge.builder("hibernate.query.plan.cache.hit.ratio", entityManagerFactory, QueryPlanCacheMetrics::hitRatio)
+                .description("쿼리 플랜 캐시 hit 비율 (0 ~ 1)")
+                .register(registry);
+    }
+
+    private static double hitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long hit = statistics.getQueryPlanCacheHitCount();
+        long total = hit + statistics.getQueryPlanCacheMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+}
@@ -0,0 +1,98 @@
+package study.data_jpa.monitoring;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 한 작업(HTTP 요청, 테스트 등) 동안 실행된 SQL 통계
+ * 현재 스레드에 묶여 있고, QueryMetricsListener가 SQL이 실행될 때마다 여기에 기록한다.
+ * 같은 모양(파라미터 값만 다르고 SQL은 같은)의 SQL이 threshold번을 넘게 실행되면 N+1로 본다.
+ *
+ * try (QueryScope scope = QueryScope.open("name", 10, true)) { ... scope.getStatementCount() ... }
+ */
+public final class QueryScope implements AutoCloseable {
+
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final int nPlusOneThreshold;
+    private final boolean failOnNPlusOne;
+    private final QueryScope parent;
+
+    private final Map<String, Integer> statementShapes = new HashMap<>();
+    private int statementCount;
+    private long rowCount;
+    private long elapsedNanos;
+
+    private QueryScope(String name, int nPlusOneThreshold, boolean failOnNPlusOne, QueryScope parent) {
+        this.name = name;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.failOnNPlusOne = failOnNPlusOne;
+        this.parent = parent;
+    }
+
+    public static QueryScope open(String name, int nPlusOneThreshold, boolean failOnNPlusOne) {
+        QueryScope scope = new QueryScope(name, nPlusOneThreshold, failOnNPlusOne, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * 현재 스레드에 열린 scope, 없으면 null
+     */
+    public static QueryScope current() {
+        return CURRENT.get();
+    }
+
+    void onStatement(String sql, long timeElapsedNanos) {
+        statementCount++;
+        elapsedNanos += timeElapsedNanos;
+        int executions = statementShapes.merge(sql, 1, Integer::sum);
+        if (failOnNPlusOne && executions > nPlusOneThreshold) {
+            throw new NPlusOneQueryException(name, sql, executions);
+        }
+    }
+
+    void onRow() {
+        rowCount++;
+    }
+
+    /**
+     * threshold번을 넘게 실행된 SQL과 실행 횟수
+     */
+    public Map<String, Integer> getRepeatedStatements() {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statementShapes.forEach((sql, executions) -> {
+            if (executions > nPlusOneThreshold) {
+                repeated.put(sql, executions);
+            }
+        });
+        return repeated;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package study.data_jpa.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spring Data 리포지토리 메서드 호출 동안 "MemberRepository.findByAge" 같은 이름을 현재 스레드에 기록한다.
+ * QueryMetricsListener는 이 이름으로 SQL 통계에 태그를 붙인다.
+ * 리포지토리 프록시를 만들 때 인터셉터를 하나 추가하는 방식이다.
+ */
+@Component
+public class RepositoryMethodTagger implements BeanPostProcessor {
+
+    public static final String UNKNOWN = "unknown";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    public static String current() {
+        String method = CURRENT.get();
+        return method != null ? method : UNKNOWN;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> {
+                        String repository = repositoryInformation.getRepositoryInterface().getSimpleName();
+                        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                            String previous = CURRENT.get();
+                            CURRENT.set(repository + "." + invocation.getMethod().getName());
+                            try {
+                                return invocation.proceed();
+                            } finally {
+                                if (previous == null) {
+                                    CURRENT.remove();
+                                } else {
+                                    CURRENT.set(previous);
+                                }
+                            }
+                        });
+                    }));
+        }
+        return bean;
+    }
+}
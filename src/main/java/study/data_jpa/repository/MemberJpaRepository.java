@@ -2,13 +2,21 @@ package study.data_jpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.entity.Member;
 
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * 쿼리는 전부 엔티티에 정의한 NamedQuery를 이름으로 꺼내 쓴다. (로딩 시점에 한 번만 파싱)
+ */
 @Repository
+@Transactional(readOnly = true) // 조회는 읽기 전용 트랜잭션 (변경 감지 스냅샷 X, flush X), 변경 메서드에만 @Transactional
 public class MemberJpaRepository {
 
     /**
@@ -18,17 +26,19 @@ public class MemberJpaRepository {
     @PersistenceContext
     private EntityManager em;
 
+    @Transactional
     public Member save(Member member) {
         em.persist(member); // 저장
         return member;
     }
 
+    @Transactional
     public void delete(Member member) {
         em.remove(member);
     }
 
     public List<Member> findAll() {
-        return em.createQuery("select m from Member m", Member.class)
+        return em.createNamedQuery("Member.findAllMembers", Member.class)
                 .getResultList();
     }
 
@@ -44,10 +54,22 @@ public class MemberJpaRepository {
     }
 
     public long count() {
-        return em.createQuery("select count(m) from Member m", Long.class) // count 결과값은 Long 타입
+        return em.createNamedQuery("Member.countAll", Long.class) // count 결과값은 Long 타입
                 .getSingleResult();
     }
 
+    /**
+     * 존재 여부 확인
+     * 엔티티 대신 상수 1만 조회하고, 하나만 찾으면 멈추도록 limit 1을 건다.
+     */
+    public boolean existsByUsername(String username) {
+        return !em.createNamedQuery("Member.selectOneByUsername", Integer.class)
+                .setParameter("username", username)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
     public Member find(Long id) {
         return em.find(Member.class, id); // 조회
     }
@@ -57,7 +79,7 @@ public class MemberJpaRepository {
      * 이름이 동일하고, 특정 나이 이상
      */
     public List<Member> findByUsernameAndAgeGreaterThan(String username, int age) {
-        return em.createQuery("select m from Member m where m.username = :username and m.age > :age", Member.class)
+        return em.createNamedQuery("Member.findByUsernameAndOlderThan", Member.class)
                 .setParameter("username", username)
                 .setParameter("age", age)
                 .getResultList();
@@ -78,15 +100,55 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findByPage(int age, int offset, int limit) {
-        return em.createQuery("select m from Member m where m.age = :age order by m.username desc", Member.class)
+        return em.createNamedQuery("Member.findPageByAge", Member.class)
+                .setParameter("age", age)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 슬라이스
+     * count 쿼리 대신 limit + 1개를 조회해서 다음 페이지 존재 여부만 판단한다.
+     */
+    public Slice<Member> findSliceByPage(int age, int offset, int limit) {
+        List<Member> content = em.createNamedQuery("Member.findPageByAge", Member.class)
                 .setParameter("age", age)
                 .setFirstResult(offset)
+                .setMaxResults(limit + 1)
+                .getResultList();
+
+        boolean hasNext = content.size() > limit;
+        if (hasNext) {
+            content = content.subList(0, limit);
+        }
+        return new SliceImpl<>(content, PageRequest.of(offset / limit, limit), hasNext);
+    }
+
+    /**
+     * 키셋(seek) 페이징
+     * 이전 페이지의 마지막 회원(username, id) 다음부터 limit개 조회
+     * offset을 쓰지 않기 때문에 페이지가 깊어져도 앞의 row를 읽고 버리지 않는다.
+     * 첫 페이지는 lastUsername, lastId에 null을 넘긴다.
+     */
+    public List<Member> findByPageAfter(int age, String lastUsername, Long lastId, int limit) {
+        if (lastUsername == null || lastId == null) {
+            return em.createNamedQuery("Member.findFirstKeysetPageByAge", Member.class)
+                    .setParameter("age", age)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        return em.createNamedQuery("Member.findKeysetPageByAge", Member.class)
+                .setParameter("age", age)
+                .setParameter("username", lastUsername)
+                .setParameter("id", lastId)
                 .setMaxResults(limit)
                 .getResultList();
     }
 
     public long totalCount(int age) {
-        return em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+        return em.createNamedQuery("Member.countAllByAge", Long.class)
                 .setParameter("age", age)
                 .getSingleResult();
     }
@@ -95,9 +157,10 @@ public class MemberJpaRepository {
      * 벌크 연산
      * 특정 나이 이상 사람들의 나이를 + 1
      */
+    @Transactional
     public int bulkAgePlus(int age) {
         // 수정된 데이터 수 반환
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+        return em.createNamedQuery("Member.bulkAgePlusFrom")
                 .setParameter("age", age)
                 .executeUpdate();
     }
@@ -1,21 +1,108 @@
 package study.data_jpa.repository;
 
 import jakarta.persistence.QueryHint;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.config.AsyncConfig;
 import study.data_jpa.dto.MemberDto;
 import study.data_jpa.entity.Member;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * JpaRepository를 상속받으면, @Repository가 없어도 Spring Data JPA가 알아서 빈으로 등록해준다.
+ *
+ * 읽기 전용 트랜잭션
+ * 조회 메서드는 모두 @Transactional(readOnly = true)로 실행된다.
+ * readOnly 트랜잭션은 Hibernate 세션을 기본 읽기 전용 + FlushMode.MANUAL로 바꾸기 때문에
+ * 조회한 엔티티의 변경 감지용 스냅샷을 만들지 않고 flush도 하지 않는다. (replica 라우팅 시에는 replica로 조회)
+ * 데이터를 변경하는 메서드는 반드시 @Transactional을 따로 붙여야 한다.
+ * 이미 진행 중인 트랜잭션 안에서 호출하면 바깥 트랜잭션 설정을 그대로 따른다.
  */
+@Transactional(readOnly = true)
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
 
+    String COUNT_CACHE = "memberCount";
+
+    /**
+     * 쓰기 연산
+     * count 캐시(COUNT_CACHE)를 쓰기 때문에 MemberRepository를 통한 저장/삭제 시에는 캐시를 비워준다.
+     * JpaRepository의 쓰기 메서드(save*, delete*)와 벌크 연산, saveAllInBatches 모두 해당된다. (쓰기 메서드를 추가하면 여기에도 추가)
+     * EntityManager로 직접 저장하거나 변경 감지로 수정하는 경우는 캐시에 반영되지 않으므로, count는 TTL 동안 근사값이 될 수 있다.
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    <S extends Member> S save(S entity);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    <S extends Member> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    void delete(Member entity);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    void deleteById(Long id);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    <S extends Member> S saveAndFlush(S entity);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    <S extends Member> List<S> saveAllAndFlush(Iterable<S> entities);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    void deleteAll(Iterable<? extends Member> entities);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    void deleteAllInBatch(Iterable<Member> entities);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    void deleteAllInBatch();
+
     /**
      * Spring Data JPA는 메서드 이름만으로도 JPQL 쿼리를 생성할 수 있다.
      * MemberJpaRepository의 findByUsernameAndAgeGreaterThan() 메서드는 아래의 메서드와 동일하다.
@@ -41,6 +128,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      * 이름은 생략 가능하다.
      * Spring Data JPA가 알아서 해당 인터페이스의 "class명.메서드명"으로 이름 찾아준다.
      * 만약 해당 이름의 NamedQuery가 없으면, 위에서 했던 메서드명으로 쿼리를 생성하는 방식으로 진행한다.
+     * NamedQuery에 지정한 hint(쿼리 캐시)도 그대로 적용된다.
      */
 //    @Query(name = "Member.findByUsername") // 이름 생략 가능
     List<Member> findByUsername(@Param("username") String username);
@@ -75,10 +163,31 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     List<MemberDto> findMemberDto();
 
     /**
-     * @Query에 Collection 파라미터 사용
+     * @Query 사용하여 DTO 페이징 조회
+     * 엔티티를 조회한 뒤 DTO로 바꾸면 엔티티 + 변경 감지용 스냅샷이 영속성 컨텍스트에 쌓이고, 팀 이름을 쓰려면 지연 로딩이 일어난다.
+     * DTO 생성자로 바로 조회하면 필요한 컬럼(id, username, team.name)만 읽고 엔티티는 만들지 않는다.
+     * 팀이 없는 회원도 나와야 하므로 left join을 사용하고, count 쿼리는 join 없이 따로 지정한다.
+     */
+    @Query(value = "select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    @Query("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+    Slice<MemberDto> findMemberDtoSlice(Pageable pageable);
+
+    /**
+     * @Query 사용하여 DTO 스트리밍 조회
+     * List로 받으면 전체 결과를 메모리에 올리지만, Stream으로 받으면 DB 커서에서 fetchSize개씩 읽어온다.
+     * DTO 생성자로 조회하기 때문에 영속성 컨텍스트에 엔티티가 쌓이지 않는다. -> 테이블 크기와 상관없이 메모리 사용량이 일정
+     * <주의>
+     * 커서가 열려 있는 동안 트랜잭션이 유지되어야 하므로 트랜잭션 안에서 호출해야 하고,
+     * 다 사용한 Stream은 반드시 close 해야 한다. (try-with-resources)
      */
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") List<String> names);
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t order by m.id")
+    Stream<MemberDto> streamMemberDto();
+
+    // findByNames(Collection)는 MemberRepositoryCustom (in 절 크기에 따라 나눠서 조회)
 
     /**
      * 다양한 반환 타입 가능
@@ -88,11 +197,64 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     Member findMemberByUsername(String username); // 단건 반환
     Optional<Member> findOptionalByUsername(String username); // 단건 Optional 반환
 
+    /**
+     * 존재 여부 확인
+     * 존재하는지만 알면 될 때 find로 엔티티를 조회하면 모든 컬럼을 읽고 엔티티까지 만든다.
+     * existsBy는 id 하나만 limit 1로 조회하기 때문에 엔티티를 만들지 않는다.
+     * username 조건은 (username, member_id) 인덱스를 탄다.
+     */
+    boolean existsByUsername(String username);
+
+    /**
+     * 비동기 조회
+     * repositoryExecutor 스레드에서 각자의 트랜잭션으로 실행되고, 결과는 CompletableFuture로 받는다.
+     * 서로 관계없는 조회 여러 개를 동시에 시작해두고 allOf()로 모으면 전체 응답 시간이 가장 느린 조회 하나 정도로 줄어든다.
+     * 다른 스레드의 트랜잭션이라 호출한 쪽의 커밋 전 데이터는 보이지 않고, 지연 로딩도 안 되므로 필요한 연관관계는 미리 가져온다.
+     */
+    @Async(AsyncConfig.REPOSITORY_EXECUTOR)
+    @EntityGraph(attributePaths = {"team"})
+    CompletableFuture<List<Member>> findAsyncByUsername(String username);
+
+    @Async(AsyncConfig.REPOSITORY_EXECUTOR)
+    CompletableFuture<Long> countAsyncByAge(int age);
+
     /**
      * 페이징
      */
     Page<Member> findByAge(int age, Pageable pageable);
 
+    /**
+     * 슬라이스
+     * 반환 타입을 Slice로 하면 count 쿼리를 날리지 않고, size + 1개를 조회해서 다음 페이지가 있는지만 판단한다.
+     * 전체 개수가 필요하면 아래의 캐시된 count를 따로 사용한다.
+     */
+    Slice<Member> findSliceByAge(int age, Pageable pageable);
+
+    Slice<Member> findSliceBy(Pageable pageable);
+
+    /**
+     * count 캐시
+     * 조건(나이)별 count를 COUNT_CACHE에 TTL 동안 캐시한다. (TTL은 application.yml의 spring.cache.caffeine.spec)
+     */
+    @Cacheable(cacheNames = COUNT_CACHE, key = "'age:' + #age")
+    long countByAge(int age);
+
+    @Cacheable(cacheNames = COUNT_CACHE, key = "'all'")
+    @Query("select count(m) from Member m")
+    long countMembers();
+
+    /**
+     * 키셋(seek) 페이징
+     * offset 페이징은 앞의 row를 전부 읽고 버리기 때문에 뒤 페이지로 갈수록 느려진다.
+     * 키셋 페이징은 마지막으로 읽은 row의 정렬 키(username, id) 다음부터 읽기 때문에 몇 번째 페이지든 비용이 같다.
+     * 정렬 키가 유일해야 중복/누락 없이 넘어가므로 username 뒤에 id를 붙여서 정렬한다.
+     * 첫 페이지는 ScrollPosition.keyset()을 넘기고, 다음 페이지는 window.positionAt(마지막 인덱스)를 넘기면 된다.
+     */
+    Window<Member> findByAgeOrderByUsernameAscIdAsc(int age, ScrollPosition position, Limit limit);
+
+    @EntityGraph(attributePaths = {"team"})
+    Window<Member> findAllByOrderByUsernameAscIdAsc(ScrollPosition position, Limit limit);
+
     /**
      * 벌크 연산
      * 벌크 연산 쿼리는 @Modifying 어노테이션을 붙여야 한다.
@@ -116,10 +278,29 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      * 1. 영속성 컨텍스트 안에 엔티티가 없는 상태에서 벌크 연산을 먼저 수행
      * 2. 영속성 컨텍스트에 엔티티가 존재한다면 벌크 연산 직후 영속성 컨텍스트 초기화
      */
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
     @Modifying(clearAutomatically = true)
     @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
+    /**
+     * 구간 벌크 연산
+     * 한 번에 전체를 수정하면 그동안 락과 undo 로그가 계속 쌓이기 때문에, PK 구간별로 나눠서 수정할 때 사용한다.
+     * (MemberBulkUpdateService가 구간마다 별도 트랜잭션으로 호출)
+     */
+    @Transactional
+    @CacheEvict(cacheNames = COUNT_CACHE, allEntries = true)
+    @Modifying(clearAutomatically = true)
+    @Query("update Member m set m.age = m.age + 1 where m.age >= :age and m.id >= :fromId and m.id < :toId")
+    int bulkAgePlusInRange(@Param("age") int age, @Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("select min(m.id) from Member m")
+    Long findMinId();
+
+    @Query("select max(m.id) from Member m")
+    Long findMaxId();
+
     /**
      * 페치 조인
      */
@@ -153,4 +334,25 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     List<UsernameOnly> findProjectionsByUsername(@Param("username") String username);
 
     List<UsernameOnlyDto> findProjectionsByUsernameDto(String username);
+
+    /**
+     * 동적 프로젝션
+     * 반환 타입을 파라미터로 넘겨서 메서드 하나로 여러 모양을 조회한다.
+     * - UsernameOnly, UsernameOnlyDto: select m.username
+     * - MemberDto(id, username, teamName): teamName은 team.name으로 해석되어 left join 후 컬럼 3개만 조회 (엔티티 X)
+     * 중첩 인터페이스 프로젝션(getTeam().getName())은 팀 엔티티 전체를 조회하므로, 팀 값은 DTO에 평평하게(teamName) 받는다.
+     */
+    <T> List<T> findProjectionsByUsername(String username, Class<T> type);
+
+    /**
+     * 결과가 많은 프로젝션 (ProjectionBenchmark)
+     * 인터페이스 프로젝션은 row마다 프록시가 생기므로, 많이 조회할 때는 생성된 구현 클래스를 동적 프로젝션 타입으로 넘긴다.
+     * ex) findProjectionsByAge(age, ProjectionClasses.of(UsernameOnly.class))
+     * open projection(@Value SpEL)은 값을 꺼낼 때마다 SpEL을 평가하기 때문에 대량 조회에는 쓰지 않는다.
+     */
+    List<UsernameOnly> findUsernamesByAge(int age);
+
+    <T> List<T> findProjectionsByAge(int age, Class<T> type);
+
+    List<UsernameOnlyDto> findUsernameDtosByAge(int age);
 }
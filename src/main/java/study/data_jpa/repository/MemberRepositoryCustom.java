@@ -1,10 +1,37 @@
 package study.data_jpa.repository;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.dto.MemberSearchCondition;
 import study.data_jpa.entity.Member;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MemberRepositoryCustom {
 
     List<Member> findMemberCustom();
+
+    /**
+     * in 절에 Collection 파라미터 사용
+     * 이름이 많으면 in 절을 일정 크기로 나눠서 조회한 뒤 합치고,
+     * 아주 많으면 in 절 대신 배열 파라미터 하나로 조회한다. (중복된 이름은 한 번만 조회)
+     */
+    List<Member> findByNames(Collection<String> names);
+
+    /**
+     * 대량 저장
+     * chunkSize개마다 flush + clear 해서 영속성 컨텍스트가 계속 커지지 않도록 한다.
+     * 저장한 회원 수 반환
+     */
+    @CacheEvict(cacheNames = MemberRepository.COUNT_CACHE, allEntries = true)
+    int saveAllInBatches(Iterable<Member> members, int chunkSize);
+
+    /**
+     * 동적 검색
+     * 값이 있는 조건만 where 절에 넣고, 정렬과 limit(size + 1)까지 SQL에서 처리한 뒤 DTO로 조회한다. (count 쿼리 X)
+     */
+    Slice<MemberDto> search(MemberSearchCondition condition, Pageable pageable);
 }
@@ -1,20 +1,188 @@
 package study.data_jpa.repository;
 
 import jakarta.persistence.EntityManager;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.dto.MemberSearchCondition;
+import study.data_jpa.entity.BatchAuditing;
 import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 
-@RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    static final int IN_CHUNK_SIZE = 500;
+    static final int ARRAY_PARAMETER_THRESHOLD = 2000;
+
     private final EntityManager em;
+    private final AuditorAware<String> auditorAware;
+    private final DateTimeProvider dateTimeProvider;
+    private final boolean batchAuditing;
+
+    public MemberRepositoryImpl(EntityManager em,
+                                AuditorAware<String> auditorAware,
+                                @Qualifier("auditingDateTimeProvider") DateTimeProvider dateTimeProvider,
+                                @Value("${auditing.batch-mode:false}") boolean batchAuditing) {
+        this.em = em;
+        this.auditorAware = auditorAware;
+        this.dateTimeProvider = dateTimeProvider;
+        this.batchAuditing = batchAuditing;
+    }
 
     @Override
     public List<Member> findMemberCustom() {
-        return em.createQuery("select m from Member m", Member.class)
+        return em.createNamedQuery("Member.findAllMembers", Member.class)
                 .getResultList();
 
     }
+
+    /**
+     * 1. in_clause_parameter_padding: 파라미터 수를 2의 거듭제곱으로 맞춰서 SQL 모양(플랜 캐시 항목)이 몇 개로 유지된다.
+     * 2. IN_CHUNK_SIZE개씩 나눠서 조회: in 절이 DB/드라이버 파라미터 한도를 넘지 않는다.
+     * 3. ARRAY_PARAMETER_THRESHOLD개 초과: 청크 쿼리를 여러 번 날리는 대신 배열 파라미터 하나로 한 번에 조회한다.
+     *    (username = any(?) 는 H2, PostgreSQL 문법)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Member> findByNames(Collection<String> names) {
+        List<String> distinctNames = new ArrayList<>(new LinkedHashSet<>(names));
+        if (distinctNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        if (distinctNames.size() > ARRAY_PARAMETER_THRESHOLD) {
+            return em.createNativeQuery("select * from member where username = any(?1)", Member.class)
+                    .setParameter(1, distinctNames.toArray(String[]::new))
+                    .getResultList();
+        }
+
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < distinctNames.size(); from += IN_CHUNK_SIZE) {
+            List<String> chunk = distinctNames.subList(from, Math.min(from + IN_CHUNK_SIZE, distinctNames.size()));
+            result.addAll(em.createNamedQuery("Member.findAllByUsernames", Member.class)
+                    .setParameter("names", chunk)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    /**
+     * Criteria API로 조건이 있는 것만 Predicate로 만든다. (문자열 JPQL을 이어 붙이지 않는다)
+     * 검색 값은 literal이 아니라 파라미터로 바인딩되므로, 조건 조합(+ 정렬)마다 SQL 모양이 하나씩만 생기고
+     * hibernate.criteria.plan_cache_enabled로 그 모양의 쿼리 플랜을 재사용한다.
+     * 같은 username이 여러 명이어도 페이지가 흔들리지 않도록 마지막에 id 정렬을 붙인다.
+     */
+    @Override
+    public Slice<MemberDto> search(MemberSearchCondition condition, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<MemberDto> query = cb.createQuery(MemberDto.class);
+        Root<Member> m = query.from(Member.class);
+        Join<Member, Team> t = m.join("team", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (StringUtils.hasText(condition.getUsernamePrefix())) {
+            predicates.add(cb.like(m.<String>get("username"), escapeLike(condition.getUsernamePrefix()) + "%", '\\'));
+        }
+        if (condition.getAgeGoe() != null) {
+            predicates.add(cb.ge(m.<Integer>get("age"), condition.getAgeGoe()));
+        }
+        if (condition.getAgeLoe() != null) {
+            predicates.add(cb.le(m.<Integer>get("age"), condition.getAgeLoe()));
+        }
+        if (StringUtils.hasText(condition.getTeamName())) {
+            predicates.add(cb.equal(t.get("name"), condition.getTeamName()));
+        }
+
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), m, cb));
+        orders.add(cb.asc(m.get("id")));
+
+        query.select(cb.construct(MemberDto.class, m.get("id"), m.get("username"), t.get("name")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(orders);
+
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(em.createQuery(query).getResultList());
+        }
+
+        List<MemberDto> content = em.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * persist만 하면 insert는 flush 시점에 hibernate.jdbc.batch_size개씩 묶여서 나간다.
+     * 하지만 영속성 컨텍스트에는 저장한 엔티티(+ 변경 감지용 스냅샷)가 계속 쌓이기 때문에
+     * chunkSize마다 flush로 DB에 반영하고 clear로 비워줘야 메모리가 일정하게 유지된다.
+     * clear 이후에는 넘겨받은 회원들이 준영속 상태가 된다.
+     * auditing.batch-mode=true면 등록자/등록일을 호출당 한 번만 구해서 모든 회원에 똑같이 넣는다. (BatchAuditing)
+     */
+    @Override
+    @Transactional
+    public int saveAllInBatches(Iterable<Member> members, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다. chunkSize = " + chunkSize);
+        }
+
+        // 대량 저장한 회원을 2차 캐시에 넣지 않는다. (캐시가 방금 넣은 데이터로 가득 차는 것 방지)
+        Session session = em.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+
+        int count = 0;
+        try (BatchAuditing.Scope ignored = batchAuditing ? beginBatchAuditing() : null) {
+            for (Member member : members) {
+                em.persist(member);
+                if (++count % chunkSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.flush();
+            em.clear();
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        return count;
+    }
+
+    private BatchAuditing.Scope beginBatchAuditing() {
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+        LocalDateTime now = dateTimeProvider.getNow().map(LocalDateTime::from).orElseGet(LocalDateTime::now);
+        return BatchAuditing.begin(auditor, now);
+    }
 }
@@ -0,0 +1,142 @@
+package study.data_jpa.repository;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.beans.Introspector;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 인터페이스 프로젝션의 구현 클래스를 처음 사용할 때 만들어준다. (인터페이스당 한 번 생성해서 캐시)
+ * 인터페이스를 반환 타입으로 쓰면 스프링 데이터가 row마다 JDK 프록시를 만들고, getter 호출도 프록시(+ Map 조회)를 거친다.
+ * 생성된 클래스를 동적 프로젝션 타입으로 넘기면 DTO 프로젝션처럼 생성자로 바로 만들어지기 때문에 프록시가 없다.
+ * ex) memberRepository.findProjectionsByAge(age, ProjectionClasses.of(UsernameOnly.class)) -> 원소는 그대로 UsernameOnly
+ *
+ * 생성되는 클래스: getter마다 final 필드 + 모든 필드를 받는 생성자 (파라미터 이름 = 프로퍼티 이름, 스프링 데이터가 이 이름으로 조회할 컬럼을 정한다)
+ * <주의>
+ * close projection만 된다. open projection(@Value SpEL)과 getter가 아닌 추상 메서드가 있으면 IllegalArgumentException
+ * 중첩 프로젝션(프로퍼티 타입이 다른 프로젝션 인터페이스)은 생성자에 엔티티가 넘어오므로 쓸 수 없다.
+ */
+public final class ProjectionClasses {
+
+    private static final String CLASS_NAME_SUFFIX = "$$Generated";
+    private static final Map<Class<?>, Class<?>> CACHE = new ConcurrentHashMap<>();
+
+    private ProjectionClasses() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Class<? extends T> of(Class<T> projection) {
+        if (!projection.isInterface()) {
+            throw new IllegalArgumentException("인터페이스 프로젝션만 구현 클래스를 만들 수 있습니다. projection = " + projection.getName());
+        }
+        return (Class<? extends T>) CACHE.computeIfAbsent(projection, ProjectionClasses::generate);
+    }
+
+    private static Class<?> generate(Class<?> projection) {
+        Map<String, Method> getters = getters(projection);
+        String internalName = Type.getInternalName(projection) + CLASS_NAME_SUFFIX;
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, internalName, null,
+                "java/lang/Object", new String[]{Type.getInternalName(projection)});
+
+        getters.forEach((property, getter) ->
+                cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, property, Type.getDescriptor(getter.getReturnType()), null, null)
+                        .visitEnd());
+
+        writeConstructor(cw, internalName, getters);
+        getters.forEach((property, getter) -> writeGetter(cw, internalName, property, getter));
+        cw.visitEnd();
+
+        try {
+            // 인터페이스와 같은 패키지, 같은 클래스로더에 정의한다. (하이버네이트/스프링 데이터가 이름으로도 찾을 수 있다)
+            return MethodHandles.privateLookupIn(projection, MethodHandles.lookup()).defineClass(cw.toByteArray());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("프로젝션 구현 클래스를 정의할 수 없습니다. projection = " + projection.getName(), e);
+        }
+    }
+
+    /**
+     * 프로퍼티 이름 -> getter (이름순, 생성자 파라미터 순서)
+     */
+    private static Map<String, Method> getters(Class<?> projection) {
+        Map<String, Method> getters = new TreeMap<>();
+        for (Method method : projection.getMethods()) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            if (method.isAnnotationPresent(Value.class)) {
+                throw new IllegalArgumentException("open projection은 구현 클래스를 만들 수 없습니다. method = " + method);
+            }
+            String property = propertyName(method);
+            if (property == null) {
+                throw new IllegalArgumentException("getter가 아닌 메서드는 구현할 수 없습니다. method = " + method);
+            }
+            getters.putIfAbsent(property, method);
+        }
+        return getters;
+    }
+
+    private static String propertyName(Method method) {
+        String name = method.getName();
+        if (method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+            return null;
+        }
+        if (name.startsWith("get") && name.length() > 3) {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class) {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    private static void writeConstructor(ClassWriter cw, String internalName, Map<String, Method> getters) {
+        Type[] parameterTypes = getters.values().stream()
+                .map(getter -> Type.getType(getter.getReturnType()))
+                .toArray(Type[]::new);
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE, parameterTypes), null, null);
+        // MethodParameters 속성 -> 리플렉션으로 파라미터 이름을 읽을 수 있다. (-parameters로 컴파일한 것과 같음)
+        getters.keySet().forEach(property -> mv.visitParameter(property, 0));
+
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+
+        int slot = 1;
+        int i = 0;
+        for (String property : getters.keySet()) {
+            Type type = parameterTypes[i++];
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(type.getOpcode(Opcodes.ILOAD), slot);
+            mv.visitFieldInsn(Opcodes.PUTFIELD, internalName, property, type.getDescriptor());
+            slot += type.getSize();
+        }
+
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void writeGetter(ClassWriter cw, String internalName, String property, Method getter) {
+        Type type = Type.getType(getter.getReturnType());
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, getter.getName(), Type.getMethodDescriptor(getter), null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, internalName, property, type.getDescriptor());
+        mv.visitInsn(type.getOpcode(Opcodes.IRETURN));
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+}
@@ -3,28 +3,32 @@ package study.data_jpa.repository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.entity.Team;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public class TeamJpaRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    @Transactional
     public Team save(Team team) {
         em.persist(team);
         return team;
     }
 
+    @Transactional
     public void delete(Team team) {
         em.remove(team);
     }
 
     public List<Team> findAll() {
-        return em.createQuery("select t from Team t", Team.class)
+        return em.createNamedQuery("Team.findAllTeams", Team.class)
                 .getResultList();
     }
 
@@ -34,7 +38,7 @@ public class TeamJpaRepository {
     }
 
     public long count() {
-        return em.createQuery("select count(t) from Team t", Long.class) // count 결과값은 Long 타입
+        return em.createNamedQuery("Team.countAll", Long.class) // count 결과값은 Long 타입
                 .getSingleResult();
     }
 }
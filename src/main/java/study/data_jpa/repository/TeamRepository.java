@@ -1,7 +1,32 @@
 package study.data_jpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.config.AsyncConfig;
+import study.data_jpa.dto.TeamSummaryDto;
 import study.data_jpa.entity.Team;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface TeamRepository extends JpaRepository<Team, Long> {
+
+    // 비동기 count (MemberRepository의 비동기 조회 참고, repositoryExecutor 스레드의 별도 트랜잭션에서 실행)
+    @Async(AsyncConfig.REPOSITORY_EXECUTOR)
+    @Transactional(readOnly = true)
+    CompletableFuture<Long> countAsyncBy();
+
+    /**
+     * 팀 목록 + 회원 수
+     * members 컬렉션을 초기화하지 않고 group by count 한 번으로 팀별 회원 수를 구한다.
+     * 회원이 없는 팀도 나오도록 left join (count(m) = 0)
+     * 전체 개수는 회원 테이블을 조인할 필요 없이 팀만 센다.
+     */
+    @Query(value = "select new study.data_jpa.dto.TeamSummaryDto(t.id, t.name, count(m))" +
+            " from Team t left join t.members m group by t.id, t.name",
+            countQuery = "select count(t) from Team t")
+    Page<TeamSummaryDto> findTeamSummaries(Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package study.data_jpa.service;
+
+/**
+ * 구간 벌크 연산 진행 상황
+ *
+ * @param processedToId 여기까지(미포함) 처리한 id
+ * @param maxId         마지막 id
+ * @param chunks        처리한 구간 수
+ * @param updatedRows   지금까지 수정된 row 수
+ */
+public record BulkUpdateProgress(long processedToId, long maxId, int chunks, long updatedRows) {
+
+    public boolean isDone() {
+        return processedToId > maxId;
+    }
+}
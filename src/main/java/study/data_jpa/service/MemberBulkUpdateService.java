@@ -0,0 +1,100 @@
+package study.data_jpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * 대용량 벌크 연산
+ * MemberRepository.bulkAgePlus()는 update 한 번으로 전체를 수정하기 때문에, 회원이 수백만 명이면
+ * 끝날 때까지 락을 잡고 undo 로그가 계속 커진다.
+ * 여기서는 PK를 chunkSize 구간으로 나눠서 구간마다 트랜잭션을 커밋하고, 구간 사이에 pause만큼 쉬어서 다른 요청이 끼어들 틈을 준다.
+ *
+ * <주의>
+ * 구간마다 커밋하기 때문에 중간에 실패하면 앞 구간은 이미 반영된 상태다.
+ * 바깥 트랜잭션 안에서 호출하면 구간별 커밋이 안 되므로 트랜잭션 밖에서만 호출할 수 있다. (Propagation.NEVER)
+ * 각 구간은 bulkAgePlusInRange(clearAutomatically = true)로 실행되므로 영속성 컨텍스트도 구간마다 비워진다.
+ */
+@Slf4j
+@Service
+public class MemberBulkUpdateService {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultChunkSize;
+    private final Duration defaultPause;
+
+    public MemberBulkUpdateService(MemberRepository memberRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${bulk-update.chunk-size:10000}") int defaultChunkSize,
+                                   @Value("${bulk-update.pause:0ms}") Duration defaultPause) {
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultChunkSize = defaultChunkSize;
+        this.defaultPause = defaultPause;
+    }
+
+    @Transactional(propagation = Propagation.NEVER)
+    public long bulkAgePlus(int age) {
+        return bulkAgePlus(age, defaultChunkSize, defaultPause, progress -> {
+        });
+    }
+
+    /**
+     * age 이상인 회원의 나이를 + 1
+     * 수정된 row 수 반환
+     */
+    @Transactional(propagation = Propagation.NEVER)
+    public long bulkAgePlus(int age, int chunkSize, Duration pause, Consumer<BulkUpdateProgress> progressListener) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다. chunkSize = " + chunkSize);
+        }
+
+        Long minId = memberRepository.findMinId();
+        Long maxId = memberRepository.findMaxId();
+        if (minId == null) {
+            return 0; // 회원 없음
+        }
+
+        long updatedRows = 0;
+        int chunks = 0;
+        for (long fromId = minId; fromId <= maxId; fromId += chunkSize) {
+            long toId = fromId + chunkSize;
+            long from = fromId;
+            Integer updated = transactionTemplate.execute(status -> memberRepository.bulkAgePlusInRange(age, from, toId));
+            updatedRows += updated != null ? updated : 0;
+            chunks++;
+
+            BulkUpdateProgress progress = new BulkUpdateProgress(toId, maxId, chunks, updatedRows);
+            progressListener.accept(progress);
+            log.debug("bulkAgePlus 진행: id < {} / {}, 수정 {}건", toId, maxId, updatedRows);
+
+            if (!progress.isDone()) {
+                pause(pause);
+            }
+        }
+
+        log.info("bulkAgePlus 완료: 구간 {}개, 수정 {}건", chunks, updatedRows);
+        return updatedRows;
+    }
+
+    private void pause(Duration pause) {
+        if (pause.isZero() || pause.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("벌크 연산이 중단되었습니다.", e);
+        }
+    }
+}
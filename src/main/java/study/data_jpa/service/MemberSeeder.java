@@ -0,0 +1,148 @@
+package study.data_jpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 시작 데이터 넣기
+ * 애플리케이션이 요청을 받을 준비가 된 뒤(ApplicationReadyEvent) 백그라운드에서 실행되기 때문에 시작 시간에 영향을 주지 않는다.
+ * 전체를 partitionSize개씩 나눠서 ForkJoinPool에서 병렬로 저장하고, 파티션 하나가 트랜잭션 하나다. (saveAllInBatches)
+ *
+ * fixture를 지정하면 파일에서 한 줄씩 읽고 (한 줄에 "username,age"), 없으면 user0 ~ user{count-1}을 만든다.
+ * 파티션마다 커밋하기 때문에 중간에 실패하면 앞 파티션은 이미 저장된 상태다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "seed", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MemberSeeder {
+
+    private final MemberRepository memberRepository;
+    private final ResourceLoader resourceLoader;
+    private final int count;
+    private final String fixture;
+    private final int parallelism;
+    private final int partitionSize;
+    private final int chunkSize;
+
+    public MemberSeeder(MemberRepository memberRepository,
+                        ResourceLoader resourceLoader,
+                        @Value("${seed.count:100}") int count,
+                        @Value("${seed.fixture:}") String fixture,
+                        @Value("${seed.parallelism:4}") int parallelism,
+                        @Value("${seed.partition-size:10000}") int partitionSize,
+                        @Value("${seed.chunk-size:1000}") int chunkSize) {
+        if (parallelism < 1 || partitionSize < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("seed.parallelism, partition-size, chunk-size는 1 이상이어야 합니다.");
+        }
+        this.memberRepository = memberRepository;
+        this.resourceLoader = resourceLoader;
+        this.count = count;
+        this.fixture = fixture;
+        this.parallelism = parallelism;
+        this.partitionSize = partitionSize;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedInBackground() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        // fixture를 읽는 스레드는 pool 밖에 둔다. (pool의 스레드는 파티션 저장에만 쓴다)
+        CompletableFuture.supplyAsync(() -> seed(pool), command -> Thread.ofPlatform().name("member-seeder").start(command))
+                .whenComplete((seeded, e) -> {
+                    pool.shutdown();
+                    if (e != null) {
+                        log.error("시작 데이터 저장 실패", e);
+                    } else {
+                        log.info("시작 데이터 저장 완료: {}명, {}ms", seeded, (System.nanoTime() - start) / 1_000_000);
+                    }
+                });
+    }
+
+    /**
+     * 회원을 partitionSize개씩 읽어서 파티션마다 pool에 넘기고, 모두 끝날 때까지 기다린다.
+     * fixture를 한 번에 메모리에 올리지 않도록 저장 중인 파티션이 parallelism개가 되면 가장 먼저 넘긴 파티션이 끝나길 기다린 뒤 다음을 읽는다.
+     * 저장한 회원 수 반환
+     */
+    public long seed(ForkJoinPool pool) {
+        AtomicLong seeded = new AtomicLong();
+        Deque<ForkJoinTask<?>> running = new ArrayDeque<>();
+
+        try (Stream<Member> rows = rows()) {
+            Iterator<Member> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                List<Member> partition = new ArrayList<>(partitionSize);
+                while (partition.size() < partitionSize && iterator.hasNext()) {
+                    partition.add(iterator.next());
+                }
+
+                running.addLast(pool.submit(() -> {
+                    long done = seeded.addAndGet(memberRepository.saveAllInBatches(partition, chunkSize));
+                    log.info("시작 데이터 저장 중: {}명", done);
+                }));
+                if (running.size() >= parallelism) {
+                    running.removeFirst().join();
+                }
+            }
+        }
+
+        running.forEach(ForkJoinTask::join);
+        return seeded.get();
+    }
+
+    private Stream<Member> rows() {
+        if (!StringUtils.hasText(fixture)) {
+            return IntStream.range(0, count).mapToObj(i -> new Member("user" + i, i));
+        }
+
+        try {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resourceLoader.getResource(fixture).getInputStream(), StandardCharsets.UTF_8));
+            return reader.lines()
+                    .filter(StringUtils::hasText)
+                    .map(MemberSeeder::parse)
+                    .onClose(() -> {
+                        try {
+                            reader.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException("fixture를 읽을 수 없습니다. location = " + fixture, e);
+        }
+    }
+
+    private static Member parse(String line) {
+        int comma = line.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("fixture 형식은 username,age 입니다. line = " + line);
+        }
+        return new Member(line.substring(0, comma).trim(), Integer.parseInt(line.substring(comma + 1).trim()));
+    }
+}
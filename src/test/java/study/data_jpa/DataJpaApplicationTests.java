@@ -1,13 +1,32 @@
 package study.data_jpa;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import study.data_jpa.config.AsyncConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 class DataJpaApplicationTests {
 
+	@Autowired
+	ApplicationContext context;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void applicationTaskExecutor() {
+		// repositoryExecutor가 있어도 기본 executor(MVC 비동기, 기본 @Async, JPA 백그라운드 부트스트랩용)는 따로 있어야 한다.
+		AsyncTaskExecutor applicationTaskExecutor = context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, AsyncTaskExecutor.class);
+		AsyncTaskExecutor repositoryExecutor = context.getBean(AsyncConfig.REPOSITORY_EXECUTOR, AsyncTaskExecutor.class);
+
+		assertThat(applicationTaskExecutor).isNotSameAs(repositoryExecutor);
+	}
+
 }
@@ -0,0 +1,48 @@
+package study.data_jpa.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import study.data_jpa.config.VirtualThreadConfig.ConcurrencyLimitFilter;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    // 자리 1개, 못 얻으면 기다리지 않고 바로 503
+    ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ZERO);
+
+    @Test
+    @DisplayName("동기 요청은 끝나면 바로 자리를 반납한다")
+    void syncRequest() throws Exception {
+        assertThat(perform(new MockHttpServletRequest(), (req, res) -> {})).isEqualTo(200);
+        assertThat(perform(new MockHttpServletRequest(), (req, res) -> {})).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("비동기 요청은 비동기 처리가 끝날 때까지 자리를 잡고 있는다")
+    void asyncRequest() throws Exception {
+        //given
+        MockHttpServletRequest asyncRequest = new MockHttpServletRequest();
+        asyncRequest.setAsyncSupported(true);
+
+        //when
+        perform(asyncRequest, (req, res) -> req.startAsync()); // 첫 디스패치는 끝났지만 비동기 처리는 진행 중
+
+        //then
+        assertThat(perform(new MockHttpServletRequest(), (req, res) -> {})).isEqualTo(503);
+
+        asyncRequest.getAsyncContext().complete();
+        assertThat(perform(new MockHttpServletRequest(), (req, res) -> {})).isEqualTo(200);
+    }
+
+    private int perform(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,87 @@
+package study.data_jpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 읽기 전용 트랜잭션은 replica, 나머지는 primary 커넥션 풀에서 커넥션을 가져오는지 확인
+ * 인메모리 H2 두 개를 primary/replica로 사용한다. (replica에는 스키마가 없으므로 select 1만 실행)
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "replica.datasource.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    HikariDataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    HikariDataSource replicaDataSource;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    @DisplayName("readOnly 트랜잭션은 replica로 라우팅된다")
+    void readOnlyToReplica() {
+        //given
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        //when
+        Routed routed = readOnly.execute(status -> query());
+
+        //then
+        assertThat(routed.replicaActive()).isEqualTo(1);
+        assertThat(routed.primaryActive()).isEqualTo(0);
+        assertThat(routed.sessionReadOnly()).isTrue(); // 변경 감지용 스냅샷을 만들지 않는다.
+        assertThat(routed.flushMode()).isEqualTo(FlushMode.MANUAL); // flush 하지 않는다.
+    }
+
+    @Test
+    @DisplayName("읽기/쓰기 트랜잭션은 primary로 라우팅된다")
+    void readWriteToPrimary() {
+        //given
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        //when
+        Routed routed = readWrite.execute(status -> query());
+
+        //then
+        assertThat(routed.primaryActive()).isEqualTo(1);
+        assertThat(routed.replicaActive()).isEqualTo(0);
+        assertThat(routed.sessionReadOnly()).isFalse();
+        assertThat(routed.flushMode()).isEqualTo(FlushMode.AUTO);
+    }
+
+    // 트랜잭션 안에서 쿼리를 실행한 직후, 어느 풀의 커넥션이 사용 중인지 기록한다.
+    private Routed query() {
+        em.createNativeQuery("select 1").getSingleResult();
+        Session session = em.unwrap(Session.class);
+        return new Routed(activeConnections(primaryDataSource), activeConnections(replicaDataSource),
+                session.isDefaultReadOnly(), session.getHibernateFlushMode());
+    }
+
+    private static int activeConnections(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool != null ? pool.getActiveConnections() : 0; // 아직 한 번도 커넥션을 가져가지 않은 풀
+    }
+
+    private record Routed(int primaryActive, int replicaActive, boolean sessionReadOnly, FlushMode flushMode) {
+    }
+}
@@ -0,0 +1,76 @@
+package study.data_jpa.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestAuditorAwareTest {
+
+    RequestAuditorAware auditorAware = new RequestAuditorAware("X-User-Id", "system");
+
+    @AfterEach
+    void unbind() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("HTTP 요청 밖에서는 systemAuditor")
+    void outsideRequest() {
+        assertThat(auditorAware.getCurrentAuditor()).contains("system");
+    }
+
+    @Test
+    @DisplayName("로그인 사용자 > 헤더 > systemAuditor 순서로 정한다")
+    void resolveOrder() {
+        //given
+        MockHttpServletRequest withPrincipal = new MockHttpServletRequest();
+        withPrincipal.setUserPrincipal(() -> "principalUser");
+        withPrincipal.addHeader("X-User-Id", "headerUser");
+
+        MockHttpServletRequest withHeader = new MockHttpServletRequest();
+        withHeader.addHeader("X-User-Id", "headerUser");
+
+        MockHttpServletRequest blankHeader = new MockHttpServletRequest();
+        blankHeader.addHeader("X-User-Id", " ");
+
+        //when //then
+        assertThat(auditorIn(withPrincipal)).isEqualTo("principalUser");
+        assertThat(auditorIn(withHeader)).isEqualTo("headerUser");
+        assertThat(auditorIn(blankHeader)).isEqualTo("system");
+        assertThat(auditorIn(new MockHttpServletRequest())).isEqualTo("system");
+    }
+
+    @Test
+    @DisplayName("같은 요청에서는 처음 구한 값을 요청 속성에서 꺼내 쓴다")
+    void cachedPerRequest() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-User-Id", "first");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        String first = auditorAware.getCurrentAuditor().orElseThrow();
+
+        //when
+        request.removeHeader("X-User-Id");
+        request.addHeader("X-User-Id", "second");
+        String second = auditorAware.getCurrentAuditor().orElseThrow();
+
+        //then
+        assertThat(first).isEqualTo("first");
+        assertThat(second).isEqualTo("first"); // 헤더를 다시 읽지 않는다.
+        assertThat(request.getAttributeNames().hasMoreElements()).isTrue();
+    }
+
+    private String auditorIn(MockHttpServletRequest request) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return auditorAware.getCurrentAuditor().orElseThrow();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package study.data_jpa.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 비동기 엔드포인트(/members/stream, /members/overview)는 다른 스레드의 별도 트랜잭션으로 조회하기 때문에
+ * @Transactional로 감쌀 수 없다. (롤백할 데이터가 안 보임)
+ * 대신 저장한 회원을 커밋하고 테스트가 끝나면 직접 지운다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    List<Member> saved = new ArrayList<>();
+    List<Team> savedTeams = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(saved);
+        teamRepository.deleteAllInBatch(savedTeams);
+    }
+
+    @Test
+    @DisplayName("SSE 스트리밍 - 청크(500명) 경계를 넘어도 순서대로 전부 내보내고 끝난다")
+    void stream() throws Exception {
+        //given
+        List<Member> members = IntStream.rangeClosed(1, 1200)
+                .mapToObj(i -> new Member("sse%04d".formatted(i), 750))
+                .toList();
+        memberRepository.saveAllInBatches(members, 100);
+        saved.addAll(members);
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/members/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvcResult.getAsyncResult(10_000); // 스트림이 complete되어야 반환된다.
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM));
+
+        //then
+        // 다른 테스트가 커밋한 회원도 섞여 있을 수 있으므로 이 테스트의 회원만 본다.
+        List<String> usernames = mvcResult.getResponse().getContentAsString().lines()
+                .filter(line -> line.startsWith("data:"))
+                .map(line -> readUsername(line.substring("data:".length())))
+                .filter(username -> username.startsWith("sse"))
+                .toList();
+        assertThat(usernames).containsExactlyElementsOf(saved.stream().map(Member::getUsername).toList());
+    }
+
+    @Test
+    @DisplayName("비동기 조회 조합 - 세 조회 결과를 합쳐서 응답한다")
+    void overview() throws Exception {
+        //given
+        Team team = teamRepository.save(new Team("overviewTeam"));
+        savedTeams.add(team);
+        saved.add(memberRepository.save(new Member("overview1", 760, team)));
+        saved.add(memberRepository.save(new Member("overview2", 760)));
+        long teamCount = teamRepository.count();
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/members/overview")
+                        .param("username", "overview1")
+                        .param("age", "760"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members.length()").value(1))
+                .andExpect(jsonPath("$.members[0].username").value("overview1"))
+                .andExpect(jsonPath("$.members[0].teamName").value("overviewTeam")) // 다른 스레드에서 조회했지만 팀도 채워져 있다
+                .andExpect(jsonPath("$.sameAgeCount").value(2))
+                .andExpect(jsonPath("$.teamCount").value(teamCount));
+    }
+
+    @Test
+    @DisplayName("내보내기 - NDJSON은 한 줄에 회원 한 명씩 JSON")
+    void exportNdjson() throws Exception {
+        //given
+        Member quoted = saveExportMembers();
+
+        //when
+        String body = export("ndjson", MediaType.APPLICATION_NDJSON);
+
+        //then
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize((int) memberRepository.count());
+        assertThat(lines).map(this::readUsername).contains("export,\"quoted\"", "exportPlain");
+        assertThat(lines).map(this::readJson).anySatisfy(json -> {
+            assertThat(json.get("id").asLong()).isEqualTo(quoted.getId());
+            assertThat(json.get("teamName").asText()).isEqualTo("team \"x\"");
+        });
+    }
+
+    @Test
+    @DisplayName("내보내기 - CSV는 헤더 + 한 줄에 회원 한 명, 쉼표/따옴표가 있으면 따옴표로 감싼다")
+    void exportCsv() throws Exception {
+        //given
+        Member quoted = saveExportMembers();
+        Member plain = saved.get(1);
+
+        //when
+        String body = export("csv", new MediaType("text", "csv"));
+
+        //then
+        List<String> lines = body.lines().toList();
+        assertThat(lines.get(0)).isEqualTo("id,username,teamName");
+        assertThat(lines).hasSize((int) memberRepository.count() + 1);
+        assertThat(lines).contains(
+                quoted.getId() + ",\"export,\"\"quoted\"\"\",\"team \"\"x\"\"\"",
+                plain.getId() + ",exportPlain,"); // 팀이 없으면 빈 값
+    }
+
+    @Test
+    @DisplayName("내보내기 - 지원하지 않는 format이면 400")
+    void exportUnknownFormat() throws Exception {
+        mockMvc.perform(get("/members/export").param("format", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Member saveExportMembers() {
+        Team team = teamRepository.save(new Team("team \"x\""));
+        savedTeams.add(team);
+        Member quoted = memberRepository.save(new Member("export,\"quoted\"", 800, team));
+        saved.add(quoted);
+        saved.add(memberRepository.save(new Member("exportPlain", 800)));
+        return quoted;
+    }
+
+    // StreamingResponseBody는 비동기로 쓰이므로 다 쓸 때까지 기다렸다가 본문을 꺼낸다.
+    private String export(String format, MediaType contentType) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/members/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvcResult.getAsyncResult(10_000);
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(contentType));
+        return mvcResult.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private String readUsername(String json) {
+        return readJson(json).get("username").asText();
+    }
+
+    private JsonNode readJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
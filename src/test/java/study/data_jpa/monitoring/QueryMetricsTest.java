@@ -0,0 +1,88 @@
+package study.data_jpa.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * query-metrics.n-plus-one.fail=true: 테스트에서 N+1이 생기면 바로 실패하게 하는 설정
+ * 리포지토리 호출마다 트랜잭션이 따로 커밋되므로 저장한 회원은 테스트가 끝나면 직접 지운다.
+ */
+@SpringBootTest(properties = "query-metrics.n-plus-one.fail=true")
+class QueryMetricsTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    QueryMetricsFilter queryMetricsFilter;
+    @Autowired
+    NPlusOneReportEndpoint reportEndpoint;
+
+    List<Member> saved = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(saved);
+    }
+
+    @Test
+    @DisplayName("SQL 실행 시간과 row 수에 리포지토리 메서드 이름으로 태그를 붙인다")
+    void methodTag() {
+        //given
+        saved.add(memberRepository.save(new Member("metrics1", 770)));
+        saved.add(memberRepository.save(new Member("metrics2", 770)));
+        String method = "MemberRepository.findUsernamesByAge";
+        double rowsBefore = rowCount(method);
+
+        //when
+        memberRepository.findUsernamesByAge(770);
+
+        //then
+        Timer timer = meterRegistry.find("jdbc.statements").tag("method", method).tag("outcome", "success").timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+        assertThat(rowCount(method) - rowsBefore).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("fail=true면 같은 SQL이 threshold번을 넘는 순간 NPlusOneQueryException, 실패한 요청도 기록한다")
+    void failOnNPlusOne() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test/n-plus-one");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/test/n-plus-one");
+
+        //when //then
+        assertThatThrownBy(() -> queryMetricsFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            for (int age = 0; age <= 10; age++) { // threshold(10)번 + 1
+                memberRepository.findUsernamesByAge(age);
+            }
+        })).isInstanceOf(NPlusOneQueryException.class);
+
+        assertThat(meterRegistry.get("http.jdbc.statements").tag("uri", "/test/n-plus-one").summary().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("http.jdbc.time").tag("uri", "/test/n-plus-one").timer().count()).isEqualTo(1);
+        assertThat(reportEndpoint.reports()).extracting(NPlusOneReportEndpoint.Report::request).contains("GET /test/n-plus-one");
+    }
+
+    private double rowCount(String method) {
+        Counter counter = meterRegistry.find("jdbc.rows").tag("method", method).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,67 @@
+package study.data_jpa.repository;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import study.data_jpa.config.AsyncConfig;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 비동기 조회는 repositoryExecutor 스레드의 별도 트랜잭션에서 실행되므로 커밋된 데이터만 보인다.
+ * 그래서 @Transactional 없이 저장(커밋)하고, 테스트가 끝나면 직접 지운다.
+ */
+@SpringBootTest
+class MemberAsyncRepositoryTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    @Qualifier(AsyncConfig.REPOSITORY_EXECUTOR)
+    AsyncTaskExecutor repositoryExecutor;
+
+    Member member;
+    Team team;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.delete(member);
+        teamRepository.delete(team);
+    }
+
+    @Test
+    @DisplayName("비동기 조회 - repositoryExecutor에서 실행되고 팀은 엔티티 그래프로 함께 가져온다")
+    void findAsyncByUsername() throws Exception {
+        //given
+        team = teamRepository.save(new Team("asyncTeam"));
+        member = memberRepository.save(new Member("asyncMember", 790, team));
+        ThreadPoolExecutor pool = ((ThreadPoolTaskExecutor) repositoryExecutor).getThreadPoolExecutor();
+        long submittedBefore = pool.getTaskCount();
+
+        //when
+        CompletableFuture<List<Member>> future = memberRepository.findAsyncByUsername("asyncMember");
+        List<Member> result = future.get(5, TimeUnit.SECONDS);
+
+        //then
+        assertThat(pool.getTaskCount()).isGreaterThan(submittedBefore); // 호출한 스레드가 아니라 executor에 넘겼다
+        assertThat(result).extracting("username").containsExactly("asyncMember");
+        // 트랜잭션이 끝난 뒤라 지연 로딩이 안 되므로 이미 초기화되어 있어야 한다.
+        assertThat(Hibernate.isInitialized(result.get(0).getTeam())).isTrue();
+        assertThat(result.get(0).getTeam().getName()).isEqualTo("asyncTeam");
+    }
+}
@@ -0,0 +1,48 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * auditing.batch-mode=true일 때 saveAllInBatches의 감사 값
+ */
+@SpringBootTest(properties = "auditing.batch-mode=true")
+@Transactional
+class MemberBatchAuditingTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    EntityManager em;
+
+    @Test
+    @DisplayName("배치 감사 모드에서는 호출 한 번에 같은 감사 값이 들어간다")
+    void saveAllInBatches() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            members.add(new Member("batchAudit" + i, 740));
+        }
+
+        //when
+        memberRepository.saveAllInBatches(members, 2); // chunk가 나뉘어도 값은 호출당 한 번만 구한다.
+        List<Member> saved = memberRepository.findByAge(740, Pageable.unpaged()).getContent();
+
+        //then
+        assertThat(saved).hasSize(5);
+        assertThat(saved).extracting(Member::getCreatedBy).containsOnly("system"); // HTTP 요청 밖
+        assertThat(saved).extracting(Member::getCreatedDate).containsOnly(saved.get(0).getCreatedDate());
+        assertThat(saved).extracting(Member::getLastModifiedDate).containsOnly(saved.get(0).getCreatedDate());
+    }
+}
@@ -148,6 +148,21 @@ class MemberJpaRepositoryTest {
         assertThat(result.get(0).getAge()).isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("존재 여부 확인")
+    void existsByUsername() {
+        //given
+        memberJpaRepository.save(new Member("member1", 10));
+
+        //when
+        boolean exists = memberJpaRepository.existsByUsername("member1");
+        boolean notExists = memberJpaRepository.existsByUsername("nobody");
+
+        //then
+        assertThat(exists).isTrue();
+        assertThat(notExists).isFalse();
+    }
+
     @Test
     @DisplayName("JPA 활용한 paging")
     void paging() {
@@ -172,6 +187,33 @@ class MemberJpaRepositoryTest {
         assertThat(totalCount).isEqualTo(6);
     }
 
+    @Test
+    @DisplayName("JPA 활용한 키셋 페이징")
+    void pagingAfter() {
+        //given
+        // 다른 테스트 데이터와 겹치지 않는 나이 (MemberTest는 age 10 회원을 커밋한다)
+        memberJpaRepository.save(new Member("member1", 130));
+        memberJpaRepository.save(new Member("member2", 130));
+        memberJpaRepository.save(new Member("member3", 130));
+        memberJpaRepository.save(new Member("member4", 130));
+        memberJpaRepository.save(new Member("member5", 140));
+
+        int age = 130;
+        int limit = 3;
+
+        //when
+        List<Member> first = memberJpaRepository.findByPageAfter(age, null, null, limit);
+        Member last = first.get(first.size() - 1);
+        List<Member> second = memberJpaRepository.findByPageAfter(age, last.getUsername(), last.getId(), limit);
+        Member secondLast = second.get(second.size() - 1);
+        List<Member> third = memberJpaRepository.findByPageAfter(age, secondLast.getUsername(), secondLast.getId(), limit);
+
+        //then
+        assertThat(first).extracting("username").containsExactly("member1", "member2", "member3");
+        assertThat(second).extracting("username").containsExactly("member4");
+        assertThat(third).isEmpty();
+    }
+
     @Test
     @DisplayName("JPA 활용한 벌크 연산")
     void bulkUpdate() {
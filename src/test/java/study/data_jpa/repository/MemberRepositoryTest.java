@@ -1,24 +1,41 @@
 package study.data_jpa.repository;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.dto.MemberDto;
+import study.data_jpa.dto.MemberSearchCondition;
+import study.data_jpa.dto.TeamSummaryDto;
+import study.data_jpa.entity.BatchAuditing;
 import study.data_jpa.entity.Member;
 import study.data_jpa.entity.Team;
+import study.data_jpa.monitoring.QueryScope;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest
 @Transactional
@@ -36,6 +53,8 @@ class MemberRepositoryTest {
     TeamRepository teamRepository;
     @Autowired
     EntityManager em;
+    @Autowired
+    MeterRegistry meterRegistry;
 
     @Test
     @DisplayName("회원 저장 테스트")
@@ -191,6 +210,25 @@ class MemberRepositoryTest {
         assertThat(result.get(0).getAge()).isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("@Query JPQL은 쿼리 플랜 캐시에서 재사용된다")
+    void queryPlanCache() {
+        //given
+        memberRepository.save(new Member("member1", 10));
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        memberRepository.findMember("member1", 10); // 처음 한 번은 파싱(miss)될 수 있다.
+        long hitCount = statistics.getQueryPlanCacheHitCount();
+
+        //when
+        for (int i = 0; i < 3; i++) {
+            memberRepository.findMember("member1", 10);
+        }
+
+        //then
+        assertThat(statistics.getQueryPlanCacheHitCount()).isGreaterThanOrEqualTo(hitCount + 3);
+        assertThat(meterRegistry.get("hibernate.query.plan.cache.hit.ratio").gauge().value()).isPositive();
+    }
+
     @Test
     @DisplayName("@Query 사용하여 단순 값 조회(회원명 조회)")
     void findUsernameList() {
@@ -228,6 +266,50 @@ class MemberRepositoryTest {
         assertThat(result.get(0).getTeamName()).isEqualTo("teamA");
     }
 
+    @Test
+    @DisplayName("@Query 사용하여 DTO 페이징 조회")
+    void findMemberDtoPage() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20));
+        em.flush();
+        em.clear();
+
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "username"));
+
+        //when
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(pageRequest);
+
+        //then
+        assertThat(page.getContent()).extracting("teamName").contains("teamA");
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero(); // 영속성 컨텍스트에 엔티티가 없다.
+    }
+
+    @Test
+    @DisplayName("@Query 사용하여 DTO 스트리밍 조회")
+    void streamMemberDto() {
+        //given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+
+        memberRepository.save(new Member("stream1", 10, teamA));
+        memberRepository.save(new Member("stream2", 20));
+
+        //when
+        List<MemberDto> result;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto()) {
+            // 다른 테스트가 커밋한 회원(member1 ...)도 조회되므로 이 테스트의 회원만 본다.
+            result = stream.filter(dto -> dto.getUsername().startsWith("stream")).toList();
+        }
+
+        //then
+        assertThat(result).extracting("username").containsExactly("stream1", "stream2");
+        assertThat(result).extracting("teamName").containsExactly("teamA", null); // left join이라 팀 없는 회원도 조회
+    }
+
     @Test
     @DisplayName("@Query에 in절 파라미터로 Collection 전달")
     void findByNames() {
@@ -247,6 +329,59 @@ class MemberRepositoryTest {
         assertThat(result).contains(member1, member2);
     }
 
+    @Test
+    @DisplayName("팀별 회원 수 조회")
+    void findTeamSummaries() {
+        //given
+        Team summaryA = new Team("summaryA");
+        Team summaryB = new Team("summaryB");
+        teamRepository.save(summaryA);
+        teamRepository.save(summaryB);
+        memberRepository.save(new Member("member1", 10, summaryA));
+        memberRepository.save(new Member("member2", 20, summaryA));
+
+        em.flush();
+        em.clear();
+
+        //when
+        Page<TeamSummaryDto> page = teamRepository.findTeamSummaries(PageRequest.of(0, 1000, Sort.by("name")));
+
+        //then
+        // 다른 테스트가 커밋한 팀이 있을 수 있으므로 이 테스트의 팀만 본다.
+        List<TeamSummaryDto> summaries = page.getContent().stream()
+                .filter(summary -> summary.getName().startsWith("summary"))
+                .toList();
+        assertThat(page.getTotalElements()).isEqualTo(teamRepository.count());
+        assertThat(summaries).extracting("name").containsExactly("summaryA", "summaryB");
+        assertThat(summaries).extracting("memberCount").containsExactly(2L, 0L);
+    }
+
+    @Test
+    @DisplayName("in절 파라미터가 많으면 나눠서 조회")
+    void findByManyNames() {
+        //given
+        memberRepository.save(new Member("many1", 10));
+        memberRepository.save(new Member("many2", 20));
+        em.flush();
+
+        List<String> chunked = new ArrayList<>();
+        for (int i = 0; i < MemberRepositoryImpl.IN_CHUNK_SIZE * 2; i++) {
+            chunked.add("many" + i);
+        }
+        List<String> array = new ArrayList<>(chunked);
+        for (int i = chunked.size(); i <= MemberRepositoryImpl.ARRAY_PARAMETER_THRESHOLD; i++) {
+            array.add("many" + i);
+        }
+
+        //when
+        List<Member> chunkedResult = memberRepository.findByNames(chunked);
+        List<Member> arrayResult = memberRepository.findByNames(array);
+
+        //then
+        assertThat(chunkedResult).extracting("username").containsExactlyInAnyOrder("many1", "many2");
+        assertThat(arrayResult).extracting("username").containsExactlyInAnyOrder("many1", "many2");
+    }
+
     @Test
     @DisplayName("다양한 반환 타입")
     void returnType() {
@@ -270,6 +405,32 @@ class MemberRepositoryTest {
         assertThat(optionalMember.getAge()).isEqualTo(20);
     }
 
+    @Test
+    @DisplayName("존재 여부 확인")
+    void existsByUsername() {
+        //given
+        memberRepository.save(new Member("member1", 10));
+
+        //when
+        boolean exists = memberRepository.existsByUsername("member1");
+        boolean notExists = memberRepository.existsByUsername("nobody");
+
+        //then
+        assertThat(exists).isTrue();
+        assertThat(notExists).isFalse();
+    }
+
+    @Test
+    @DisplayName("비동기 조회")
+    void countAsync() throws Exception {
+        //when
+        // 다른 스레드의 트랜잭션에서 실행되므로 이 테스트 트랜잭션에서 저장한(커밋 전) 데이터는 보이지 않는다.
+        CompletableFuture<Long> future = memberRepository.countAsyncByAge(-1);
+
+        //then
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(0);
+    }
+
     @Test
     @DisplayName("Spring Data JPA 활용한 paging")
     void paging() {
@@ -329,6 +490,87 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isFalse();
     }
 
+    @Test
+    @DisplayName("Slice 반환 타입으로 count 쿼리 없이 조회")
+    void findSliceByAge() {
+        //given
+        for (int i = 1; i <= 7; i++) {
+            memberRepository.save(new Member("member" + i, 730)); // 다른 테스트 데이터와 겹치지 않는 나이
+        }
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "username"));
+
+        //when
+        Slice<Member> slice = memberRepository.findSliceByAge(730, pageRequest); // count 쿼리 없이 4개(size + 1) 조회
+
+        //then
+        assertThat(slice.getContent()).extracting("username").containsExactly("member7", "member6", "member5");
+        assertThat(slice.getNumber()).isEqualTo(0);
+        assertThat(slice.isFirst()).isTrue();
+        assertThat(slice.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("count 캐시는 MemberRepository로 저장하면 무효화된다")
+    void cachedCount() {
+        //given
+        memberRepository.save(new Member("member1", 710)); // 다른 테스트 데이터와 겹치지 않는 나이
+        long before = memberRepository.countByAge(710);
+
+        //when
+        memberRepository.save(new Member("member2", 710));
+        long after = memberRepository.countByAge(710);
+
+        //then
+        assertThat(before).isEqualTo(1);
+        assertThat(after).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("count 캐시는 배치 삭제/벌크 연산에서도 무효화된다")
+    void cachedCountEvictedByBatchWrites() {
+        //given
+        Member member1 = memberRepository.save(new Member("member1", 720));
+        Member member2 = memberRepository.save(new Member("member2", 720));
+        long before = memberRepository.countByAge(720);
+
+        //when
+        memberRepository.deleteAllByIdInBatch(List.of(member1.getId()));
+        long afterDelete = memberRepository.countByAge(720);
+        memberRepository.bulkAgePlus(720);
+        long afterBulk = memberRepository.countByAge(720);
+
+        //then
+        assertThat(before).isEqualTo(2);
+        assertThat(afterDelete).isEqualTo(1);
+        assertThat(afterBulk).isEqualTo(0); // member2는 721살이 되었다.
+    }
+
+    @Test
+    @DisplayName("Spring Data JPA 활용한 키셋 페이징")
+    void scrolling() {
+        //given
+        // 다른 테스트 데이터와 겹치지 않는 나이 (MemberTest는 age 10 회원을 커밋한다)
+        memberRepository.save(new Member("member1", 110));
+        memberRepository.save(new Member("member2", 110));
+        memberRepository.save(new Member("member2", 110)); // username이 같아도 id로 순서가 정해진다.
+        memberRepository.save(new Member("member3", 110));
+        memberRepository.save(new Member("member4", 120));
+
+        int age = 110;
+
+        //when
+        Window<Member> first = memberRepository.findByAgeOrderByUsernameAscIdAsc(age, ScrollPosition.keyset(), Limit.of(2));
+        ScrollPosition next = first.positionAt(first.size() - 1);
+        Window<Member> second = memberRepository.findByAgeOrderByUsernameAscIdAsc(age, next, Limit.of(2));
+
+        //then
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting("username").containsExactly("member2", "member3");
+        assertThat(second.getContent().get(0).getId()).isNotEqualTo(first.getContent().get(1).getId());
+        assertThat(second.hasNext()).isFalse();
+    }
+
     @Test
     @DisplayName("Spring Data JPA 활용한 벌크 연산")
     void bulkUpdate() {
@@ -346,6 +588,47 @@ class MemberRepositoryTest {
         assertThat(resultCount).isEqualTo(3);
     }
 
+    @Test
+    @DisplayName("chunk 단위 대량 저장")
+    void saveAllInBatches() {
+        //given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(new Member("batch" + i, 777));
+        }
+
+        //when
+        int savedCount = memberRepository.saveAllInBatches(members, 3);
+
+        //then
+        assertThat(savedCount).isEqualTo(10);
+        assertThat(em.contains(members.get(0))).isFalse(); // chunk마다 clear 되었으므로 준영속 상태
+        assertThat(memberRepository.countByAge(777)).isEqualTo(10); // 시작 데이터(user0 ~ user99)와 겹치지 않는 나이
+    }
+
+    @Test
+    @DisplayName("배치 감사 모드 테스트")
+    void batchAuditing() {
+        //given
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Member member = new Member("batchAudit", 10);
+
+        //when
+        try (var ignored = BatchAuditing.begin("batchUser", now)) {
+            em.persist(member);
+        }
+        Member normal = new Member("normalAudit", 10);
+        em.persist(normal);
+
+        //then
+        assertThat(member.getCreatedBy()).isEqualTo("batchUser");
+        assertThat(member.getCreatedDate()).isEqualTo(now);
+        assertThat(member.getLastModifiedDate()).isEqualTo(now);
+        // 범위 밖에서는 AuditingHandler가 채운다 (HTTP 요청 밖이므로 등록자는 auditing.system-auditor)
+        assertThat(normal.getCreatedDate()).isNotNull().isNotEqualTo(now);
+        assertThat(normal.getCreatedBy()).isEqualTo("system");
+    }
+
     @Test
     @DisplayName("EntityGraph 테스트")
     public void findMemberLazy() throws Exception {
@@ -368,6 +651,81 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    @DisplayName("Team 2차 캐시")
+    void teamSecondLevelCache() {
+        //given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        //when
+        teamRepository.findById(teamA.getId()); // 캐시 miss -> DB 조회 후 캐시에 저장
+        em.clear();
+        Team findTeam = teamRepository.findById(teamA.getId()).orElseThrow(); // 캐시 hit
+
+        //then
+        assertThat(findTeam.getName()).isEqualTo("teamA");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("지연 로딩 배치 조회로 N+1 방지")
+    void batchFetchTeam() {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+        memberRepository.save(new Member("member1", 555, teamA));
+        memberRepository.save(new Member("member2", 555, teamB));
+        memberRepository.save(new Member("member3", 555, teamA));
+        memberRepository.save(new Member("member4", 555, teamB));
+        em.flush();
+        em.clear();
+
+        // 다른 데이터(시작 데이터 user0 ~ user99 등)와 겹치지 않는 나이
+        Page<Member> page = memberRepository.findByAge(555, PageRequest.of(0, 4, Sort.by("username")));
+        assertThat(page.getContent()).extracting("username").containsExactly("member1", "member2", "member3", "member4");
+
+        //when
+        int statementCount;
+        try (QueryScope scope = QueryScope.open("batchFetchTeam", 10, false)) {
+            for (Member member : page) {
+                assertThat(member.getTeam()).isNotNull();
+                member.getTeam().getName(); // 첫 번째 프록시 초기화 시 teamA, teamB를 in 절로 한 번에 조회
+            }
+            statementCount = scope.getStatementCount();
+        }
+
+        //then
+        assertThat(statementCount).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("같은 SQL 반복 실행(N+1) 감지")
+    void detectRepeatedStatements() {
+        //given
+        memberRepository.save(new Member("member1", 10));
+        em.flush();
+
+        //when
+        Map<String, Integer> repeated;
+        try (QueryScope scope = QueryScope.open("detectRepeatedStatements", 2, false)) {
+            for (int i = 0; i < 3; i++) {
+                memberRepository.findListByUsername("member1");
+            }
+            repeated = scope.getRepeatedStatements();
+        }
+
+        //then
+        assertThat(repeated).hasSize(1);
+        assertThat(repeated.values()).containsExactly(3);
+    }
+
     @Test
     @DisplayName("custom repository 테스트")
     void callCustom() {
@@ -395,4 +753,91 @@ class MemberRepositoryTest {
             System.out.println("usernameOnly = " + usernameOnly);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("projections 구현 클래스")
+    void projectionClass() {
+        //given
+        em.persist(new Member("m1", 300));
+        em.persist(new Member("m2", 300));
+
+        em.flush();
+        em.clear();
+
+        //when
+        Class<? extends UsernameOnly> generated = ProjectionClasses.of(UsernameOnly.class);
+        List<UsernameOnly> proxies = memberRepository.findUsernamesByAge(300);
+        List<? extends UsernameOnly> projections = memberRepository.findProjectionsByAge(300, generated);
+
+        //then
+        assertThat(ProjectionClasses.of(UsernameOnly.class)).isSameAs(generated); // 인터페이스당 한 번만 생성
+        assertThat(proxies).extracting(UsernameOnly::getUsername).containsExactlyInAnyOrder("m1", "m2");
+        assertThat(projections).extracting(UsernameOnly::getUsername).containsExactlyInAnyOrder("m1", "m2");
+        assertThat(projections.get(0)).isExactlyInstanceOf(generated); // 프록시가 아니다
+    }
+
+    @Test
+    @DisplayName("동적 프로젝션")
+    void dynamicProjections() {
+        //given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("m1", 0, teamA));
+        em.persist(new Member("m2", 0, teamA));
+
+        em.flush();
+        em.clear();
+
+        //when
+        List<UsernameOnly> usernames = memberRepository.findProjectionsByUsername("m1", UsernameOnly.class);
+        List<UsernameOnlyDto> dtos = memberRepository.findProjectionsByUsername("m1", UsernameOnlyDto.class);
+        List<MemberDto> members = memberRepository.findProjectionsByUsername("m1", MemberDto.class);
+
+        //then
+        assertThat(usernames).extracting(UsernameOnly::getUsername).containsExactly("m1");
+        assertThat(dtos).extracting(UsernameOnlyDto::getUsername).containsExactly("m1");
+        assertThat(members).extracting("username", "teamName").containsExactly(tuple("m1", "teamA"));
+    }
+
+    @Test
+    @DisplayName("동적 검색")
+    void search() {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("search1", 410, teamA));
+        em.persist(new Member("search2", 420, teamA));
+        em.persist(new Member("search3", 430, teamB));
+        em.persist(new Member("search_4", 440, null));
+
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernamePrefix("search");
+        condition.setAgeGoe(420);
+
+        MemberSearchCondition teamCondition = new MemberSearchCondition();
+        teamCondition.setUsernamePrefix("search"); // 다른 테스트가 커밋한 teamA 회원(member1 ...) 제외
+        teamCondition.setTeamName("teamA");
+        teamCondition.setAgeLoe(415);
+
+        MemberSearchCondition escaped = new MemberSearchCondition();
+        escaped.setUsernamePrefix("search_");
+
+        //when
+        Slice<MemberDto> slice = memberRepository.search(condition, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "age")));
+        Slice<MemberDto> byTeam = memberRepository.search(teamCondition, PageRequest.of(0, 10));
+        Slice<MemberDto> byEscaped = memberRepository.search(escaped, PageRequest.of(0, 10));
+
+        //then
+        assertThat(slice.getContent()).extracting("username").containsExactly("search_4", "search3");
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(byTeam.getContent()).extracting("username", "teamName").containsExactly(tuple("search1", "teamA"));
+        assertThat(byEscaped.getContent()).extracting("username").containsExactly("search_4"); // _는 와일드카드가 아니다
+    }
+}
@@ -0,0 +1,64 @@
+package study.data_jpa.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProjectionClassesTest {
+
+    interface NameAndAge extends UsernameOnly {
+        int getAge();
+
+        boolean isAdult();
+
+        default String getLabel() {
+            return getUsername() + "(" + getAge() + ")";
+        }
+    }
+
+    interface Open {
+        @Value("#{target.username + ' ' + target.age}")
+        String getUsernameAndAge();
+    }
+
+    interface NotGetter {
+        String username();
+    }
+
+    @Test
+    @DisplayName("getter마다 필드, 프로퍼티 이름을 파라미터 이름으로 받는 생성자")
+    void generate() throws Exception {
+        //when
+        Class<? extends NameAndAge> generated = ProjectionClasses.of(NameAndAge.class);
+
+        //then
+        assertThat(generated.isInterface()).isFalse();
+        assertThat(Proxy.isProxyClass(generated)).isFalse();
+        assertThat(generated.getPackage()).isEqualTo(NameAndAge.class.getPackage());
+        assertThat(ProjectionClasses.of(NameAndAge.class)).isSameAs(generated);
+
+        Constructor<?> constructor = generated.getConstructors()[0];
+        assertThat(constructor.getParameters()).extracting(Parameter::getName).containsExactly("adult", "age", "username");
+
+        NameAndAge nameAndAge = (NameAndAge) constructor.newInstance(true, 20, "member1");
+        assertThat(nameAndAge.getUsername()).isEqualTo("member1");
+        assertThat(nameAndAge.getAge()).isEqualTo(20);
+        assertThat(nameAndAge.isAdult()).isTrue();
+        assertThat(nameAndAge.getLabel()).isEqualTo("member1(20)"); // default 메서드는 그대로
+    }
+
+    @Test
+    @DisplayName("close projection 인터페이스가 아니면 만들 수 없다")
+    void unsupported() {
+        assertThatThrownBy(() -> ProjectionClasses.of(Open.class)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ProjectionClasses.of(NotGetter.class)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ProjectionClasses.of(UsernameOnlyDto.class)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
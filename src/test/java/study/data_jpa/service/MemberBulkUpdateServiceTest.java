@@ -0,0 +1,58 @@
+package study.data_jpa.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 구간마다 커밋하는 기능이라 @Transactional로 감쌀 수 없다. (Propagation.NEVER)
+ * 대신 테스트가 끝나면 저장한 회원을 직접 지운다.
+ */
+@SpringBootTest
+class MemberBulkUpdateServiceTest {
+
+    @Autowired
+    MemberBulkUpdateService memberBulkUpdateService;
+    @Autowired
+    MemberRepository memberRepository;
+
+    List<Member> saved = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAllInBatch(saved);
+    }
+
+    @Test
+    @DisplayName("PK 구간별 벌크 연산")
+    void bulkAgePlusInChunks() {
+        //given
+        saved.add(memberRepository.save(new Member("bulk1", 910)));
+        saved.add(memberRepository.save(new Member("bulk2", 919)));
+        saved.add(memberRepository.save(new Member("bulk3", 920)));
+        saved.add(memberRepository.save(new Member("bulk4", 921)));
+        saved.add(memberRepository.save(new Member("bulk5", 940)));
+
+        List<BulkUpdateProgress> progresses = new ArrayList<>();
+
+        //when
+        long updatedRows = memberBulkUpdateService.bulkAgePlus(920, 2, Duration.ZERO, progresses::add);
+
+        //then
+        assertThat(updatedRows).isEqualTo(3);
+        assertThat(progresses).isNotEmpty();
+        assertThat(progresses.get(progresses.size() - 1).isDone()).isTrue();
+        assertThat(memberRepository.findById(saved.get(2).getId()).orElseThrow().getAge()).isEqualTo(921);
+        assertThat(memberRepository.findById(saved.get(0).getId()).orElseThrow().getAge()).isEqualTo(910);
+    }
+}